@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+import dagger.internal.Beta;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates a {@link Component} to generate a method that eagerly instantiates all of its scoped
+ * bindings in parallel.
+ *
+ * <p>For a component {@code MyComponent}, the generated {@code DaggerMyComponent} will have a
+ * method:
+ *
+ * <pre><code>
+ *   public static void warmUpScopedBindings(MyComponent component, Executor executor)
+ *       throws InterruptedException
+ * </code></pre>
+ *
+ * <p>which gets every scoped binding of the component on the given executor and returns once all
+ * of them have been instantiated. Bindings are started in waves ordered by their dependencies, so
+ * that independent bindings are instantiated concurrently and a binding is only started once the
+ * scoped bindings needed to construct it have been instantiated. If instantiating a binding throws,
+ * the remaining waves are not started and the exception is rethrown.
+ *
+ * <p>This is useful for servers that must instantiate all of their singletons before accepting
+ * traffic. Scoped bindings of subcomponents are not instantiated.
+ */
+@Documented
+@Target(TYPE)
+@Retention(CLASS)
+@Beta
+public @interface WarmUpScopedBindings {}
@@ -16,7 +16,6 @@
 
 package dagger.android;
 
-import static dagger.internal.DaggerCollections.newLinkedHashMapWithExpectedSize;
 import static dagger.internal.Preconditions.checkNotNull;
 
 import android.app.Activity;
@@ -24,10 +23,8 @@ import android.app.Fragment;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import dagger.internal.Beta;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
@@ -49,43 +46,33 @@ public final class DispatchingAndroidInjector<T> implements AndroidInjector<T> {
       "No injector factory bound for Class<%1$s>. Injector factories were bound for supertypes "
           + "of %1$s: %2$s. Did you mean to bind an injector factory for the subtype?";
 
-  private final Map<String, Provider<AndroidInjector.Factory<?>>> injectorFactories;
-
-  @Inject
-  DispatchingAndroidInjector(
-      Map<Class<?>, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithClassKeys,
-      Map<String, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithStringKeys) {
-    this.injectorFactories = merge(injectorFactoriesWithClassKeys, injectorFactoriesWithStringKeys);
-  }
+  private final Map<Class<?>, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithClassKeys;
+  private final Map<String, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithStringKeys;
 
   /**
-   * Merges the two maps into one by transforming the values of the {@code classKeyedMap} with
-   * {@link Class#getName()}.
+   * The two maps are kept separate rather than merged into a single map keyed by class name, so
+   * that constructing an injector doesn't copy every binding (a new instance is created for each
+   * injected Activity, Fragment, etc.) and so that class-keyed bindings are looked up by the {@link
+   * Class} itself.
    *
    * <p>An SPI plugin verifies the logical uniqueness of the keysets of these two maps so we're
    * assured there's no overlap.
-   *
-   * <p>Ideally we could achieve this with a generic {@code @Provides} method, but we'd need to have
-   * <i>N</i> modules that each extend one base module.
    */
-  private static <C, V> Map<String, Provider<AndroidInjector.Factory<?>>> merge(
-      Map<Class<? extends C>, V> classKeyedMap, Map<String, V> stringKeyedMap) {
-    if (classKeyedMap.isEmpty()) {
-      @SuppressWarnings({"unchecked", "rawtypes"})
-      Map<String, Provider<AndroidInjector.Factory<?>>> safeCast = (Map) stringKeyedMap;
-      return safeCast;
-    }
+  @Inject
+  DispatchingAndroidInjector(
+      Map<Class<?>, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithClassKeys,
+      Map<String, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithStringKeys) {
+    this.injectorFactoriesWithClassKeys = injectorFactoriesWithClassKeys;
+    this.injectorFactoriesWithStringKeys = injectorFactoriesWithStringKeys;
+  }
 
-    Map<String, V> merged =
-        newLinkedHashMapWithExpectedSize(classKeyedMap.size() + stringKeyedMap.size());
-    merged.putAll(stringKeyedMap);
-    for (Entry<Class<? extends C>, V> entry : classKeyedMap.entrySet()) {
-      merged.put(entry.getKey().getName(), entry.getValue());
+  private Provider<AndroidInjector.Factory<?>> getFactoryProvider(Class<?> clazz) {
+    Provider<AndroidInjector.Factory<?>> factoryProvider =
+        injectorFactoriesWithClassKeys.get(clazz);
+    if (factoryProvider == null && !injectorFactoriesWithStringKeys.isEmpty()) {
+      factoryProvider = injectorFactoriesWithStringKeys.get(clazz.getName());
     }
-
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    Map<String, Provider<AndroidInjector.Factory<?>>> safeCast = (Map) merged;
-    return Collections.unmodifiableMap(safeCast);
+    return factoryProvider;
   }
 
   /**
@@ -97,8 +84,7 @@ public final class DispatchingAndroidInjector<T> implements AndroidInjector<T> {
    */
   @CanIgnoreReturnValue
   public boolean maybeInject(T instance) {
-    Provider<AndroidInjector.Factory<?>> factoryProvider =
-        injectorFactories.get(instance.getClass().getName());
+    Provider<AndroidInjector.Factory<?>> factoryProvider = getFactoryProvider(instance.getClass());
     if (factoryProvider == null) {
       return false;
     }
@@ -153,7 +139,7 @@ public final class DispatchingAndroidInjector<T> implements AndroidInjector<T> {
   private String errorMessageSuggestions(T instance) {
     List<String> suggestions = new ArrayList<>();
     for (Class<?> clazz = instance.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
-      if (injectorFactories.containsKey(clazz.getCanonicalName())) {
+      if (getFactoryProvider(clazz) != null) {
         suggestions.add(clazz.getCanonicalName());
       }
     }
@@ -21,12 +21,20 @@ import dagger.hilt.internal.GeneratedComponentManager;
 import dagger.hilt.internal.Preconditions;
 import dagger.hilt.internal.TestSingletonComponent;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 
 /** Static utility methods for accessing objects through entry points. */
 public final class EntryPoints {
   private static final String EARLY_ENTRY_POINT = "dagger.hilt.android.EarlyEntryPoint";
 
+  // The entry points that have already been validated to not be early entry points, so that the
+  // reflective validation is only done once per entry point.
+  private static final Set<Class<?>> validatedEntryPoints =
+      Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+
   /**
    * Returns the entry point interface given a component or component manager. Note that this
    * performs an unsafe cast and so callers should be sure that the given component/component
@@ -47,11 +55,14 @@ public final class EntryPoints {
         // @EarlyEntryPoint only has an effect in test environment, so we shouldn't fail in
         // non-test cases. In addition, some of the validation requires the use of reflection, which
         // we don't want to do in non-test cases anyway.
-        Preconditions.checkState(
-            !hasAnnotationReflection(entryPoint, EARLY_ENTRY_POINT),
-            "Interface, %s, annotated with @EarlyEntryPoint should be called with "
-                + "EarlyEntryPoints.get() rather than EntryPoints.get()",
-            entryPoint.getCanonicalName());
+        if (!validatedEntryPoints.contains(entryPoint)) {
+          Preconditions.checkState(
+              !hasAnnotationReflection(entryPoint, EARLY_ENTRY_POINT),
+              "Interface, %s, annotated with @EarlyEntryPoint should be called with "
+                  + "EarlyEntryPoints.get() rather than EntryPoints.get()",
+              entryPoint.getCanonicalName());
+          validatedEntryPoints.add(entryPoint);
+        }
       }
       // Unsafe cast. There is no way for this method to know that the correct component was used.
       return entryPoint.cast(component);
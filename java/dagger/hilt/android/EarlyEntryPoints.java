@@ -25,11 +25,17 @@ import dagger.hilt.internal.Preconditions;
 import dagger.hilt.internal.TestSingletonComponentManager;
 import dagger.internal.Beta;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 
 /** Static utility methods for accessing entry points annotated with {@link EarlyEntryPoint}. */
 @Beta
 public final class EarlyEntryPoints {
+  // The entry points that have already been validated to be early entry points.
+  private static final Set<Class<?>> validatedEarlyEntryPoints =
+      Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
 
   /**
    * Returns the early entry point interface given a component manager holder. Note that this
@@ -53,10 +59,13 @@ public final class EarlyEntryPoints {
     Object componentManager =
         ((GeneratedComponentManagerHolder) application).componentManager();
     if (componentManager instanceof TestSingletonComponentManager) {
-      Preconditions.checkState(
-          hasAnnotationReflection(entryPoint, EarlyEntryPoint.class),
-          "%s should be called with EntryPoints.get() rather than EarlyEntryPoints.get()",
-          entryPoint.getCanonicalName());
+      if (!validatedEarlyEntryPoints.contains(entryPoint)) {
+        Preconditions.checkState(
+            hasAnnotationReflection(entryPoint, EarlyEntryPoint.class),
+            "%s should be called with EntryPoints.get() rather than EarlyEntryPoints.get()",
+            entryPoint.getCanonicalName());
+        validatedEarlyEntryPoints.add(entryPoint);
+      }
       Object earlyComponent =
           ((TestSingletonComponentManager) componentManager).earlySingletonComponent();
       return entryPoint.cast(earlyComponent);
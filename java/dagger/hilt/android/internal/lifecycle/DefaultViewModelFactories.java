@@ -32,6 +32,7 @@ import dagger.hilt.android.components.ActivityComponent;
 import dagger.hilt.android.components.FragmentComponent;
 import dagger.hilt.android.internal.builders.ViewModelComponentBuilder;
 import dagger.multibindings.Multibinds;
+import java.util.Map;
 import java.util.Set;
 import javax.inject.Inject;
 
@@ -73,16 +74,16 @@ public final class DefaultViewModelFactories {
   public static final class InternalFactoryFactory {
 
     private final Application application;
-    private final Set<String> keySet;
+    private final Map<String, HiltViewModelAccessor> accessors;
     private final ViewModelComponentBuilder viewModelComponentBuilder;
 
     @Inject
     InternalFactoryFactory(
             Application application,
-        @HiltViewModelMap.KeySet Set<String> keySet,
+        @HiltViewModelMap.Accessors Map<String, HiltViewModelAccessor> accessors,
         ViewModelComponentBuilder viewModelComponentBuilder) {
       this.application = application;
-      this.keySet = keySet;
+      this.accessors = accessors;
       this.viewModelComponentBuilder = viewModelComponentBuilder;
     }
 
@@ -107,7 +108,7 @@ public final class DefaultViewModelFactories {
           ? new SavedStateViewModelFactory(application, owner, defaultArgs)
           : extensionDelegate;
       return new HiltViewModelFactory(
-          owner, defaultArgs, keySet, delegate, viewModelComponentBuilder);
+          owner, defaultArgs, accessors, delegate, viewModelComponentBuilder);
     }
   }
 
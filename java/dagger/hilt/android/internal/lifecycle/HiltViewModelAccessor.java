@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.android.internal.lifecycle;
+
+import androidx.lifecycle.ViewModel;
+import dagger.hilt.android.components.ViewModelComponent;
+
+/**
+ * Do not use except in Hilt generated code!
+ *
+ * <p>Creates a single {@link dagger.hilt.android.lifecycle.HiltViewModel} from its {@link
+ * ViewModelComponent}. An accessor is generated for each ViewModel so that creating a ViewModel
+ * does not require building the map of all ViewModel providers.
+ */
+public interface HiltViewModelAccessor {
+  /** Returns a new instance of the ViewModel from the given component. */
+  ViewModel get(ViewModelComponent viewModelComponent);
+}
@@ -30,12 +30,12 @@ import dagger.hilt.EntryPoint;
 import dagger.hilt.EntryPoints;
 import dagger.hilt.InstallIn;
 import dagger.hilt.android.components.ActivityComponent;
+import dagger.hilt.android.components.ActivityRetainedComponent;
 import dagger.hilt.android.components.ViewModelComponent;
 import dagger.hilt.android.internal.builders.ViewModelComponentBuilder;
 import dagger.multibindings.Multibinds;
 import java.util.Map;
 import java.util.Set;
-import javax.inject.Provider;
 
 /**
  * View Model Provider Factory for the Hilt Extension.
@@ -48,14 +48,6 @@ import javax.inject.Provider;
  */
 public final class HiltViewModelFactory implements ViewModelProvider.Factory {
 
-  /** Hilt entry point for getting the multi-binding map of ViewModels. */
-  @EntryPoint
-  @InstallIn(ViewModelComponent.class)
-  public interface ViewModelFactoriesEntryPoint {
-    @HiltViewModelMap
-    Map<String, Provider<ViewModel>> getHiltViewModelMap();
-  }
-
   /** Hilt module for providing the empty multi-binding map of ViewModels. */
   @Module
   @InstallIn(ViewModelComponent.class)
@@ -65,16 +57,67 @@ public final class HiltViewModelFactory implements ViewModelProvider.Factory {
     Map<String, ViewModel> hiltViewModelMap();
   }
 
+  /** Hilt module for providing the empty multi-binding map of ViewModel accessors. */
+  @Module
+  @InstallIn(ActivityRetainedComponent.class)
+  interface ActivityRetainedModule {
+    @Multibinds
+    @HiltViewModelMap.Accessors
+    Map<String, HiltViewModelAccessor> hiltViewModelAccessors();
+  }
+
+  /** Hilt entry point for getting the accessors of ViewModels from their component. */
+  @EntryPoint
+  @InstallIn(ViewModelComponent.class)
+  interface ViewModelAccessorsEntryPoint {
+    @HiltViewModelMap.Accessors
+    Map<String, HiltViewModelAccessor> getViewModelAccessors();
+  }
+
   private final Set<String> hiltViewModelKeys;
   private final ViewModelProvider.Factory delegateFactory;
   private final AbstractSavedStateViewModelFactory hiltViewModelFactory;
 
+  public HiltViewModelFactory(
+      @NonNull SavedStateRegistryOwner owner,
+      @Nullable Bundle defaultArgs,
+      @NonNull Map<String, HiltViewModelAccessor> hiltViewModelAccessors,
+      @NonNull ViewModelProvider.Factory delegateFactory,
+      @NonNull ViewModelComponentBuilder viewModelComponentBuilder) {
+    this(
+        owner,
+        defaultArgs,
+        hiltViewModelAccessors.keySet(),
+        hiltViewModelAccessors,
+        delegateFactory,
+        viewModelComponentBuilder);
+  }
+
+  /**
+   * Creates a factory from the keys of the ViewModels, as done by code generated by older versions
+   * of Hilt. The accessors of the ViewModels are then retrieved from each new {@link
+   * ViewModelComponent}.
+   *
+   * @deprecated Use {@link #HiltViewModelFactory(SavedStateRegistryOwner, Bundle, Map,
+   *     ViewModelProvider.Factory, ViewModelComponentBuilder)} instead.
+   */
+  @Deprecated
   public HiltViewModelFactory(
       @NonNull SavedStateRegistryOwner owner,
       @Nullable Bundle defaultArgs,
       @NonNull Set<String> hiltViewModelKeys,
       @NonNull ViewModelProvider.Factory delegateFactory,
       @NonNull ViewModelComponentBuilder viewModelComponentBuilder) {
+    this(owner, defaultArgs, hiltViewModelKeys, null, delegateFactory, viewModelComponentBuilder);
+  }
+
+  private HiltViewModelFactory(
+      @NonNull SavedStateRegistryOwner owner,
+      @Nullable Bundle defaultArgs,
+      @NonNull Set<String> hiltViewModelKeys,
+      @Nullable final Map<String, HiltViewModelAccessor> hiltViewModelAccessors,
+      @NonNull ViewModelProvider.Factory delegateFactory,
+      @NonNull final ViewModelComponentBuilder viewModelComponentBuilder) {
     this.hiltViewModelKeys = hiltViewModelKeys;
     this.delegateFactory = delegateFactory;
     this.hiltViewModelFactory =
@@ -86,18 +129,23 @@ public final class HiltViewModelFactory implements ViewModelProvider.Factory {
               @NonNull String key, @NonNull Class<T> modelClass, @NonNull SavedStateHandle handle) {
             ViewModelComponent component =
                 viewModelComponentBuilder.savedStateHandle(handle).build();
-            Provider<? extends ViewModel> provider =
-                EntryPoints.get(component, ViewModelFactoriesEntryPoint.class)
-                    .getHiltViewModelMap()
-                    .get(modelClass.getName());
-            if (provider == null) {
+            // Look up the generated accessor of the ViewModel rather than requesting the
+            // multibinding map of all ViewModel providers from the component, so that the cost of
+            // creating a ViewModel does not grow with the number of ViewModels.
+            Map<String, HiltViewModelAccessor> accessors =
+                hiltViewModelAccessors != null
+                    ? hiltViewModelAccessors
+                    : EntryPoints.get(component, ViewModelAccessorsEntryPoint.class)
+                        .getViewModelAccessors();
+            HiltViewModelAccessor accessor = accessors.get(modelClass.getName());
+            if (accessor == null) {
               throw new IllegalStateException(
                   "Expected the @HiltViewModel-annotated class '"
                       + modelClass.getName()
                       + "' to be available in the multi-binding of "
-                      + "@HiltViewModelMap but none was found.");
+                      + "@HiltViewModelMap.Accessors but none was found.");
             }
-            return (T) provider.get();
+            return (T) accessor.get(component);
           }
         };
   }
@@ -115,8 +163,8 @@ public final class HiltViewModelFactory implements ViewModelProvider.Factory {
   @EntryPoint
   @InstallIn(ActivityComponent.class)
   interface ActivityCreatorEntryPoint {
-    @HiltViewModelMap.KeySet
-    Set<String> getViewModelKeys();
+    @HiltViewModelMap.Accessors
+    Map<String, HiltViewModelAccessor> getViewModelAccessors();
     ViewModelComponentBuilder getViewModelComponentBuilder();
   }
 
@@ -130,7 +178,7 @@ public final class HiltViewModelFactory implements ViewModelProvider.Factory {
     return new HiltViewModelFactory(
         owner,
         defaultArgs,
-        entryPoint.getViewModelKeys(),
+        entryPoint.getViewModelAccessors(),
         delegateFactory,
         entryPoint.getViewModelComponentBuilder()
     );
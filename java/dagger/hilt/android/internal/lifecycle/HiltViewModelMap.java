@@ -36,4 +36,21 @@ public @interface HiltViewModelMap {
   @Retention(RetentionPolicy.CLASS)
   @Target({ElementType.METHOD, ElementType.PARAMETER})
   @interface KeySet {}
+
+  /**
+   * Internal qualifier for the multibinding map of {@link HiltViewModelAccessor}s keyed by the
+   * class names of the ViewModels they create.
+   */
+  @Qualifier
+  @Retention(RetentionPolicy.CLASS)
+  @Target({ElementType.METHOD, ElementType.PARAMETER})
+  @interface Accessors {}
+
+  /** Internal qualifier for the binding of a single ViewModel, keyed by its class name. */
+  @Qualifier
+  @Retention(RetentionPolicy.CLASS)
+  @Target({ElementType.METHOD, ElementType.PARAMETER})
+  @interface Keyed {
+    String value();
+  }
 }
@@ -45,7 +45,6 @@ public class ActivityComponentManager implements GeneratedComponentManager<Objec
   }
 
   private volatile Object component;
-  private final Object componentLock = new Object();
 
   protected final Activity activity;
 
@@ -60,14 +59,17 @@ public class ActivityComponentManager implements GeneratedComponentManager<Objec
 
   @Override
   public Object generatedComponent() {
-    if (component == null) {
-      synchronized (componentLock) {
-        if (component == null) {
-          component = createComponent();
+    Object result = component;
+    if (result == null) {
+      synchronized (this) {
+        result = component;
+        if (result == null) {
+          result = createComponent();
+          component = result;
         }
       }
     }
-    return component;
+    return result;
   }
 
   protected Object createComponent() {
@@ -82,7 +82,6 @@ final class ActivityRetainedComponentManager
   private final ViewModelProvider viewModelProvider;
 
   @Nullable private volatile ActivityRetainedComponent component;
-  private final Object componentLock = new Object();
 
   ActivityRetainedComponentManager(ComponentActivity activity) {
     this.viewModelProvider = getViewModelProvider(activity, activity);
@@ -109,14 +108,17 @@ final class ActivityRetainedComponentManager
 
   @Override
   public ActivityRetainedComponent generatedComponent() {
-    if (component == null) {
-      synchronized (componentLock) {
-        if (component == null) {
-          component = createComponent();
+    ActivityRetainedComponent result = component;
+    if (result == null) {
+      synchronized (this) {
+        result = component;
+        if (result == null) {
+          result = createComponent();
+          component = result;
         }
       }
     }
-    return component;
+    return result;
   }
 
   private ActivityRetainedComponent createComponent() {
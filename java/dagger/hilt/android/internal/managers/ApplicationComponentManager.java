@@ -25,22 +25,69 @@ import dagger.hilt.internal.GeneratedComponentManager;
  */
 public final class ApplicationComponentManager implements GeneratedComponentManager<Object> {
   private volatile Object component;
-  private final Object componentLock = new Object();
   private final ComponentSupplier componentCreator;
 
+  // Guarded by this.
+  private RuntimeException backgroundCreationFailure;
+
   public ApplicationComponentManager(ComponentSupplier componentCreator) {
     this.componentCreator = componentCreator;
   }
 
   @Override
   public Object generatedComponent() {
-    if (component == null) {
-      synchronized (componentLock) {
-        if (component == null) {
-          component = componentCreator.get();
+    Object result = component;
+    if (result == null) {
+      synchronized (this) {
+        result = component;
+        if (result == null) {
+          if (backgroundCreationFailure != null) {
+            throw new IllegalStateException(
+                "The component failed to be created on a background thread.",
+                backgroundCreationFailure);
+          }
+          result = componentCreator.get();
+          component = result;
         }
       }
     }
-    return component;
+    return result;
+  }
+
+  /**
+   * Starts creating the component on a new background thread, unless it was already created.
+   *
+   * <p>Calls to {@link #generatedComponent()} made while the component is being created block until
+   * it is ready. If the creation throws a {@link RuntimeException}, it is not retried: every later
+   * call to {@link #generatedComponent()} throws an {@link IllegalStateException} caused by it, so
+   * that the failure is reported on the thread that actually needs the component. Errors are not
+   * caught and propagate on the background thread.
+   */
+  public void createComponentInBackground() {
+    if (component != null) {
+      return;
+    }
+    Thread thread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                // The failure is recorded under the same lock as the creation, so that a caller
+                // blocked on the creation sees it rather than retrying.
+                synchronized (ApplicationComponentManager.this) {
+                  if (component != null) {
+                    return;
+                  }
+                  try {
+                    component = componentCreator.get();
+                  } catch (RuntimeException e) {
+                    backgroundCreationFailure = e;
+                  }
+                }
+              }
+            },
+            "HiltSingletonComponentCreation");
+    thread.setDaemon(true);
+    thread.start();
   }
 }
@@ -49,7 +49,6 @@ public class FragmentComponentManager implements GeneratedComponentManager<Objec
   }
 
   private volatile Object component;
-  private final Object componentLock = new Object();
   private final Fragment fragment;
 
   public FragmentComponentManager(Fragment fragment) {
@@ -58,14 +57,17 @@ public class FragmentComponentManager implements GeneratedComponentManager<Objec
 
   @Override
   public Object generatedComponent() {
-    if (component == null) {
-      synchronized (componentLock) {
-        if (component == null) {
-          component = createComponent();
+    Object result = component;
+    if (result == null) {
+      synchronized (this) {
+        result = component;
+        if (result == null) {
+          result = createComponent();
+          component = result;
         }
       }
     }
-    return component;
+    return result;
   }
 
   private Object createComponent() {
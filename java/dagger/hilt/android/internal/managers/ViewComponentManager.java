@@ -60,7 +60,6 @@ public final class ViewComponentManager implements GeneratedComponentManager<Obj
   }
 
   private volatile Object component;
-  private final Object componentLock = new Object();
   private final boolean hasFragmentBindings;
   private final View view;
 
@@ -71,14 +70,17 @@ public final class ViewComponentManager implements GeneratedComponentManager<Obj
 
   @Override
   public Object generatedComponent() {
-    if (component == null) {
-      synchronized (componentLock) {
-        if (component == null) {
-          component = createComponent();
+    Object result = component;
+    if (result == null) {
+      synchronized (this) {
+        result = component;
+        if (result == null) {
+          result = createComponent();
+          component = result;
         }
       }
     }
-    return component;
+    return result;
   }
 
   private Object createComponent() {
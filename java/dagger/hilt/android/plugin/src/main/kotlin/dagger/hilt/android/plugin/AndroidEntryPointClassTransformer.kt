@@ -18,8 +18,7 @@ package dagger.hilt.android.plugin
 import dagger.hilt.android.plugin.util.isClassFile
 import dagger.hilt.android.plugin.util.isJarFile
 import java.io.File
-import java.io.FileInputStream
-import java.util.zip.ZipInputStream
+import java.util.zip.ZipFile
 import javassist.ClassPool
 import javassist.CtClass
 import javassist.Modifier
@@ -75,16 +74,8 @@ internal class AndroidEntryPointClassTransformer(
       "Transforming a jar is not supported with 'copyNonTransformed'."
     }
     var transformed = false
-    ZipInputStream(FileInputStream(inputFile)).use { input ->
-      var entry = input.nextEntry
-      while (entry != null) {
-        if (entry.isClassFile()) {
-          val clazz = classPool.makeClass(input, false)
-          transformed = transformClassToOutput(clazz) || transformed
-          clazz.detach()
-        }
-        entry = input.nextEntry
-      }
+    readCandidateClasses(inputFile).forEach { classBytes ->
+      transformed = transformClassBytes(classBytes) || transformed
     }
     return transformed
   }
@@ -99,7 +90,47 @@ internal class AndroidEntryPointClassTransformer(
     check(inputFile.isClassFile()) {
       "Invalid file, '$inputFile' is not a class."
     }
-    val clazz = inputFile.inputStream().use { classPool.makeClass(it, false) }
+    val classBytes = inputFile.readBytes()
+    if (!copyNonTransformed && !mayBeAnnotated(classBytes)) {
+      return false
+    }
+    return transformClassBytes(classBytes)
+  }
+
+  /**
+   * Returns the contents of the class files in the given jar or directory that might need to be
+   * transformed, i.e. those that reference one of the [ANDROID_ENTRY_POINT_ANNOTATIONS].
+   *
+   * Unlike the transform methods, this method does not use the [ClassPool] and can be safely
+   * called from multiple threads.
+   */
+  fun readCandidateClasses(input: File): List<ByteArray> {
+    return when {
+      // A ZipFile is used instead of a ZipInputStream so that entries are read directly without
+      // having to inflate the preceding ones.
+      input.isJarFile() -> ZipFile(input).use { zipFile ->
+        zipFile.entries().asSequence()
+          .filter { it.isClassFile() }
+          .map { entry -> zipFile.getInputStream(entry).use { it.readBytes() } }
+          .filter { mayBeAnnotated(it) }
+          .toList()
+      }
+      input.isDirectory -> input.walkTopDown()
+        .filter { it.isClassFile() }
+        .map { it.readBytes() }
+        .filter { mayBeAnnotated(it) }
+        .toList()
+      else -> emptyList()
+    }
+  }
+
+  /**
+   * Transforms a class given its contents.
+   *
+   * @return true if the class was transformed.
+   */
+  fun transformClassBytes(classBytes: ByteArray): Boolean {
+    val clazz = classBytes.inputStream().use { classPool.makeClass(it, false) }
     val transformed = transformClassToOutput(clazz)
     clazz.detach()
     return transformed
@@ -113,6 +144,23 @@ internal class AndroidEntryPointClassTransformer(
     return transformed
   }
 
+  // Parsing a class with Javassist is expensive, so check if the class file contains the descriptor
+  // of an Android entry point annotation in its constant pool before parsing it.
+  private fun mayBeAnnotated(classBytes: ByteArray) =
+    ANDROID_ENTRY_POINT_DESCRIPTORS.any { classBytes.contains(it) }
+
+  private fun ByteArray.contains(bytes: ByteArray): Boolean {
+    outer@ for (i in 0..size - bytes.size) {
+      for (j in bytes.indices) {
+        if (this[i + j] != bytes[j]) {
+          continue@outer
+        }
+      }
+      return true
+    }
+    return false
+  }
+
   private fun transformClass(clazz: CtClass): Boolean {
     if (ANDROID_ENTRY_POINT_ANNOTATIONS.none { clazz.hasAnnotation(it) }) {
       // Not a Android entry point annotated class, don't do anything.
@@ -251,6 +299,9 @@ internal class AndroidEntryPointClassTransformer(
       "dagger.hilt.android.AndroidEntryPoint",
       "dagger.hilt.android.HiltAndroidApp"
     )
+    private val ANDROID_ENTRY_POINT_DESCRIPTORS = ANDROID_ENTRY_POINT_ANNOTATIONS.map {
+      "L${it.replace('.', '/')};".toByteArray()
+    }
     val ON_RECEIVE_METHOD_NAME = "onReceive"
     val ON_RECEIVE_METHOD_SIGNATURE =
       "(Landroid/content/Context;Landroid/content/Intent;)V"
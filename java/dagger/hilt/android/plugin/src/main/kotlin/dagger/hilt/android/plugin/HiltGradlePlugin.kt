@@ -44,6 +44,7 @@ import org.gradle.api.attributes.Attribute
 import org.gradle.api.attributes.Usage
 import org.gradle.api.provider.ProviderFactory
 import org.gradle.api.tasks.compile.JavaCompile
+import org.objectweb.asm.Opcodes
 
 /**
  * A Gradle plugin that checks if the project is an Android project and if so, registers a
@@ -108,6 +109,7 @@ class HiltGradlePlugin @Inject constructor(
     registerTransform(AggregatedPackagesTransform::class.java) { spec ->
       spec.from.attribute(ARTIFACT_TYPE_ATTRIBUTE, DAGGER_ARTIFACT_TYPE_VALUE)
       spec.to.attribute(ARTIFACT_TYPE_ATTRIBUTE, AGGREGATED_HILT_ARTIFACT_TYPE_VALUE)
+      spec.parameters.asmApiVersion.set(ASM_API_VERSION)
     }
   }
 
@@ -344,9 +346,13 @@ class HiltGradlePlugin @Inject constructor(
       AggregateDepsTask::class.java
     ) {
       it.compileClasspath.setFrom(getInputClasspath(AGGREGATED_HILT_ARTIFACT_TYPE_VALUE))
+      it.asmApiVersion.set(ASM_API_VERSION)
       it.outputDir.set(
         project.file(project.buildDir.resolve("generated/hilt/component_trees/${variant.name}/"))
       )
+      it.stateDir.set(
+        project.file(project.buildDir.resolve("intermediates/hilt/aggregation/${variant.name}/"))
+      )
       @Suppress("DEPRECATION") // Older variant API is deprecated
       it.testEnvironment.set(
         variant is com.android.build.gradle.api.TestVariant ||
@@ -477,6 +483,9 @@ class HiltGradlePlugin @Inject constructor(
 
     const val LIBRARY_GROUP = "com.google.dagger"
 
+    // The ASM API version used to read the aggregated classes of the dependencies.
+    const val ASM_API_VERSION = Opcodes.ASM7
+
     val missingDepError: (String) -> String = { depCoordinate ->
       "The Hilt Android Gradle plugin is applied but no $depCoordinate dependency was found."
     }
@@ -16,6 +16,8 @@
 
 package dagger.hilt.android.plugin.root
 
+import java.io.File
+
 // Annotations used for aggregating dependencies by the annotation processors.
 internal enum class AggregatedAnnotation(
   private val descriptor: String,
@@ -59,5 +61,15 @@ internal enum class AggregatedAnnotation(
     fun fromString(str: String) = values().firstOrNull { it.descriptor == str } ?: NONE
 
     val AGGREGATED_PACKAGES = values().map { it.aggregatedPackage }.filter { it.isNotEmpty() }
+
+    // Returns true if the given jar entry directory, e.g. "com/foo/hilt_aggregated_deps", matches
+    // one of the aggregated packages.
+    fun isInAggregatedPackage(entryDirectory: String) =
+      AGGREGATED_PACKAGES.any { entryDirectory.endsWith(it) }
+
+    // Returns true if the given class directory matches one of the aggregated packages. File APIs
+    // are used to avoid OS-specific issues when comparing paths.
+    fun isInAggregatedPackage(classDirectory: File) =
+      AGGREGATED_PACKAGES.any { classDirectory.endsWith(it) }
   }
 }
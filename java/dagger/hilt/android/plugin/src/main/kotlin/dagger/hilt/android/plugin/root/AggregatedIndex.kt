@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.android.plugin.root
+
+import com.squareup.javapoet.ClassName
+import dagger.hilt.android.plugin.task.Aggregator
+import dagger.hilt.android.plugin.task.Aggregator.Companion.toClassName
+import dagger.hilt.processor.internal.root.ir.AggregatedDepsIr
+import dagger.hilt.processor.internal.root.ir.AggregatedEarlyEntryPointIr
+import dagger.hilt.processor.internal.root.ir.AggregatedElementProxyIr
+import dagger.hilt.processor.internal.root.ir.AggregatedRootIr
+import dagger.hilt.processor.internal.root.ir.AggregatedUninstallModulesIr
+import dagger.hilt.processor.internal.root.ir.AliasOfPropagatedDataIr
+import dagger.hilt.processor.internal.root.ir.DefineComponentClassesIr
+import dagger.hilt.processor.internal.root.ir.ProcessedRootSentinelIr
+import java.io.File
+import org.objectweb.asm.Type
+
+/**
+ * A compact, versioned index of the Hilt aggregated elements found in a single classpath entry.
+ *
+ * Indices are created once per jar or class directory by
+ * [dagger.hilt.android.plugin.util.AggregatedPackagesTransform] and merged by the [Aggregator], so
+ * that aggregating a root only reads one small file per dependency instead of re-parsing the
+ * aggregated classes of every dependency.
+ *
+ * The format is line based: a header with the [VERSION] followed by one line per element, where
+ * the first field is the kind of element and the remaining fields are tab separated class names
+ * using their reflection names. List fields are comma separated and absent values are empty.
+ */
+internal data class AggregatedIndex(
+  val aggregatedRoots: Set<AggregatedRootIr>,
+  val processedRoots: Set<ProcessedRootSentinelIr>,
+  val defineComponentDeps: Set<DefineComponentClassesIr>,
+  val aliasOfDeps: Set<AliasOfPropagatedDataIr>,
+  val aggregatedDeps: Set<AggregatedDepsIr>,
+  val aggregatedDepProxies: Set<AggregatedElementProxyIr>,
+  val allAggregatedDepProxies: Set<AggregatedElementProxyIr>,
+  val uninstallModulesDeps: Set<AggregatedUninstallModulesIr>,
+  val earlyEntryPointDeps: Set<AggregatedEarlyEntryPointIr>,
+) {
+
+  fun isEmpty() =
+    aggregatedRoots.isEmpty() &&
+      processedRoots.isEmpty() &&
+      defineComponentDeps.isEmpty() &&
+      aliasOfDeps.isEmpty() &&
+      aggregatedDeps.isEmpty() &&
+      aggregatedDepProxies.isEmpty() &&
+      allAggregatedDepProxies.isEmpty() &&
+      uninstallModulesDeps.isEmpty() &&
+      earlyEntryPointDeps.isEmpty()
+
+  fun writeTo(file: File) {
+    file.bufferedWriter().use { writer ->
+      fun line(kind: String, vararg fields: String) {
+        writer.write((listOf(kind) + fields).joinToString(FIELD_SEPARATOR))
+        writer.newLine()
+      }
+      writer.write("$HEADER $VERSION")
+      writer.newLine()
+      aggregatedRoots.forEach {
+        line(ROOT, it.fqName.name(), it.root.name(), it.originatingRoot.name(),
+          it.rootAnnotation.name())
+      }
+      processedRoots.forEach {
+        line(PROCESSED_ROOT, it.fqName.name(), it.roots.names())
+      }
+      defineComponentDeps.forEach {
+        line(DEFINE_COMPONENT, it.fqName.name(), it.component.name())
+      }
+      aliasOfDeps.forEach {
+        line(ALIAS_OF, it.fqName.name(), it.defineComponentScope.name(), it.alias.name())
+      }
+      aggregatedDeps.forEach {
+        line(DEP, it.fqName.name(), it.components.names(), it.test.name(), it.replaces.names(),
+          it.module.name(), it.entryPoint.name(), it.componentEntryPoint.name())
+      }
+      aggregatedDepProxies.forEach {
+        line(PROXY, it.fqName.name(), it.value.name())
+      }
+      allAggregatedDepProxies.forEach {
+        line(REQUIRED_PROXY, it.fqName.name(), it.value.name())
+      }
+      uninstallModulesDeps.forEach {
+        line(UNINSTALL_MODULES, it.fqName.name(), it.test.name(), it.uninstallModules.names())
+      }
+      earlyEntryPointDeps.forEach {
+        line(EARLY_ENTRY_POINT, it.fqName.name(), it.earlyEntryPoint.name())
+      }
+    }
+  }
+
+  companion object {
+    /** The name of the index file output by the aggregating transform. */
+    const val FILE_NAME = "hiltAggregated.idx"
+
+    // Bump when the format changes so that stale indices fail loudly instead of being misread.
+    private const val VERSION = 1
+    private const val HEADER = "hilt-aggregated-index"
+    private const val FIELD_SEPARATOR = "\t"
+    private const val LIST_SEPARATOR = ","
+
+    private const val ROOT = "root"
+    private const val PROCESSED_ROOT = "processedRoot"
+    private const val DEFINE_COMPONENT = "defineComponent"
+    private const val ALIAS_OF = "aliasOf"
+    private const val DEP = "dep"
+    private const val PROXY = "proxy"
+    private const val REQUIRED_PROXY = "requiredProxy"
+    private const val UNINSTALL_MODULES = "uninstallModules"
+    private const val EARLY_ENTRY_POINT = "earlyEntryPoint"
+
+    /** An index without any aggregated elements. */
+    val EMPTY = AggregatedIndex(
+      aggregatedRoots = emptySet(),
+      processedRoots = emptySet(),
+      defineComponentDeps = emptySet(),
+      aliasOfDeps = emptySet(),
+      aggregatedDeps = emptySet(),
+      aggregatedDepProxies = emptySet(),
+      allAggregatedDepProxies = emptySet(),
+      uninstallModulesDeps = emptySet(),
+      earlyEntryPointDeps = emptySet(),
+    )
+
+    fun File.isAggregatedIndexFile() = this.isFile && this.name == FILE_NAME
+
+    fun readFrom(file: File): AggregatedIndex {
+      val aggregatedRoots = mutableSetOf<AggregatedRootIr>()
+      val processedRoots = mutableSetOf<ProcessedRootSentinelIr>()
+      val defineComponentDeps = mutableSetOf<DefineComponentClassesIr>()
+      val aliasOfDeps = mutableSetOf<AliasOfPropagatedDataIr>()
+      val aggregatedDeps = mutableSetOf<AggregatedDepsIr>()
+      val aggregatedDepProxies = mutableSetOf<AggregatedElementProxyIr>()
+      val allAggregatedDepProxies = mutableSetOf<AggregatedElementProxyIr>()
+      val uninstallModulesDeps = mutableSetOf<AggregatedUninstallModulesIr>()
+      val earlyEntryPointDeps = mutableSetOf<AggregatedEarlyEntryPointIr>()
+      file.bufferedReader().useLines { lines ->
+        lines.forEachIndexed { index, line ->
+          if (index == 0) {
+            check(line == "$HEADER $VERSION") {
+              "Unsupported Hilt aggregated index in $file: '$line'. Expected version $VERSION, " +
+                "try doing a clean build."
+            }
+            return@forEachIndexed
+          }
+          val fields = line.split(FIELD_SEPARATOR)
+          when (fields[0]) {
+            ROOT -> aggregatedRoots.add(
+              AggregatedRootIr(
+                fqName = fields[1].fromReflectionName(),
+                root = fields[2].fromReflectionName(),
+                originatingRoot = fields[3].fromReflectionName(),
+                rootAnnotation = fields[4].fromReflectionName()
+              )
+            )
+            PROCESSED_ROOT -> processedRoots.add(
+              ProcessedRootSentinelIr(
+                fqName = fields[1].fromReflectionName(),
+                roots = fields[2].fromReflectionNames()
+              )
+            )
+            DEFINE_COMPONENT -> defineComponentDeps.add(
+              DefineComponentClassesIr(
+                fqName = fields[1].fromReflectionName(),
+                component = fields[2].fromReflectionName()
+              )
+            )
+            ALIAS_OF -> aliasOfDeps.add(
+              AliasOfPropagatedDataIr(
+                fqName = fields[1].fromReflectionName(),
+                defineComponentScope = fields[2].fromReflectionName(),
+                alias = fields[3].fromReflectionName()
+              )
+            )
+            DEP -> aggregatedDeps.add(
+              AggregatedDepsIr(
+                fqName = fields[1].fromReflectionName(),
+                components = fields[2].fromReflectionNames(),
+                test = fields[3].fromNullableReflectionName(),
+                replaces = fields[4].fromReflectionNames(),
+                module = fields[5].fromNullableReflectionName(),
+                entryPoint = fields[6].fromNullableReflectionName(),
+                componentEntryPoint = fields[7].fromNullableReflectionName()
+              )
+            )
+            PROXY -> aggregatedDepProxies.add(
+              AggregatedElementProxyIr(
+                fqName = fields[1].fromReflectionName(),
+                value = fields[2].fromReflectionName()
+              )
+            )
+            REQUIRED_PROXY -> allAggregatedDepProxies.add(
+              AggregatedElementProxyIr(
+                fqName = fields[1].fromReflectionName(),
+                value = fields[2].fromReflectionName()
+              )
+            )
+            UNINSTALL_MODULES -> uninstallModulesDeps.add(
+              AggregatedUninstallModulesIr(
+                fqName = fields[1].fromReflectionName(),
+                test = fields[2].fromReflectionName(),
+                uninstallModules = fields[3].fromReflectionNames()
+              )
+            )
+            EARLY_ENTRY_POINT -> earlyEntryPointDeps.add(
+              AggregatedEarlyEntryPointIr(
+                fqName = fields[1].fromReflectionName(),
+                earlyEntryPoint = fields[2].fromReflectionName()
+              )
+            )
+            else -> error("Unknown entry in Hilt aggregated index $file: '$line'")
+          }
+        }
+      }
+      return AggregatedIndex(
+        aggregatedRoots = aggregatedRoots,
+        processedRoots = processedRoots,
+        defineComponentDeps = defineComponentDeps,
+        aliasOfDeps = aliasOfDeps,
+        aggregatedDeps = aggregatedDeps,
+        aggregatedDepProxies = aggregatedDepProxies,
+        allAggregatedDepProxies = allAggregatedDepProxies,
+        uninstallModulesDeps = uninstallModulesDeps,
+        earlyEntryPointDeps = earlyEntryPointDeps,
+      )
+    }
+
+    // Reflection names are used since, unlike canonical names, they can be converted back to a
+    // ClassName without guessing where the package name ends.
+    private fun ClassName?.name() = this?.reflectionName() ?: ""
+
+    private fun List<ClassName>.names() = joinToString(LIST_SEPARATOR) { it.reflectionName() }
+
+    private fun String.fromReflectionName() = Type.getObjectType(replace('.', '/')).toClassName()
+
+    private fun String.fromNullableReflectionName() = if (isEmpty()) null else fromReflectionName()
+
+    private fun String.fromReflectionNames() =
+      if (isEmpty()) emptyList() else split(LIST_SEPARATOR).map { it.fromReflectionName() }
+  }
+}
@@ -18,7 +18,8 @@ package dagger.hilt.android.plugin.task
 
 import com.squareup.javapoet.ClassName
 import dagger.hilt.android.plugin.root.AggregatedAnnotation
-import dagger.hilt.android.plugin.util.forEachZipEntry
+import dagger.hilt.android.plugin.root.AggregatedIndex
+import dagger.hilt.android.plugin.root.AggregatedIndex.Companion.isAggregatedIndexFile
 import dagger.hilt.android.plugin.util.isClassFile
 import dagger.hilt.android.plugin.util.isJarFile
 import dagger.hilt.processor.internal.root.ir.AggregatedDepsIr
@@ -31,7 +32,8 @@ import dagger.hilt.processor.internal.root.ir.DefineComponentClassesIr
 import dagger.hilt.processor.internal.root.ir.ProcessedRootSentinelIr
 import java.io.File
 import java.io.InputStream
-import java.util.zip.ZipInputStream
+import java.util.stream.Collectors
+import java.util.zip.ZipFile
 import org.objectweb.asm.AnnotationVisitor
 import org.objectweb.asm.ClassReader
 import org.objectweb.asm.ClassVisitor
@@ -346,6 +348,30 @@ internal class Aggregator private constructor(
       return nextAnnotationVisitor
     }
 
+    fun addAll(index: AggregatedIndex) {
+      aggregatedRoots.addAll(index.aggregatedRoots)
+      processedRoots.addAll(index.processedRoots)
+      defineComponentDeps.addAll(index.defineComponentDeps)
+      aliasOfDeps.addAll(index.aliasOfDeps)
+      aggregatedDeps.addAll(index.aggregatedDeps)
+      aggregatedDepProxies.addAll(index.aggregatedDepProxies)
+      allAggregatedDepProxies.addAll(index.allAggregatedDepProxies)
+      uninstallModulesDeps.addAll(index.uninstallModulesDeps)
+      earlyEntryPointDeps.addAll(index.earlyEntryPointDeps)
+    }
+
+    fun toIndex() = AggregatedIndex(
+      aggregatedRoots = aggregatedRoots,
+      processedRoots = processedRoots,
+      defineComponentDeps = defineComponentDeps,
+      aliasOfDeps = aliasOfDeps,
+      aggregatedDeps = aggregatedDeps,
+      aggregatedDepProxies = aggregatedDepProxies,
+      allAggregatedDepProxies = allAggregatedDepProxies,
+      uninstallModulesDeps = uninstallModulesDeps,
+      earlyEntryPointDeps = earlyEntryPointDeps,
+    )
+
     fun visitValue(block: (value: Any) -> Unit) =
       object : AnnotationVisitor(asmApiVersion) {
         override fun visit(nullName: String?, value: Any) {
@@ -354,41 +380,85 @@ internal class Aggregator private constructor(
       }
   }
 
-  private fun process(files: Iterable<File>) {
-    files.forEach { file ->
+  private fun process(
+    files: Iterable<File>,
+    cachedIndexOf: (File) -> AggregatedIndex?,
+    onVisited: (File, AggregatedIndex) -> Unit
+  ) {
+    val inputs = files.flatMap { file ->
       when {
-        file.isFile -> visitFile(file)
-        file.isDirectory -> file.walkTopDown().filter { it.isFile }.forEach { visitFile(it) }
-        else -> logger.warn("Can't process file/directory that doesn't exist: $file")
+        file.isFile -> listOf(file)
+        file.isDirectory -> file.walkTopDown().filter { it.isFile }.toList()
+        else -> {
+          logger.warn("Can't process file/directory that doesn't exist: $file")
+          emptyList()
+        }
       }
     }
+    // Inputs are visited in parallel, each with its own visitor since a visitor holds the state of
+    // the class being visited. The results are then merged in the classpath order.
+    inputs.parallelStream()
+      .map { file ->
+        cachedIndexOf(file)
+          ?: AggregatedDepClassVisitor(logger, asmApiVersion)
+            .also { visitFile(file, it) }
+            .toIndex()
+            .also { onVisited(file, it) }
+      }
+      .collect(Collectors.toList())
+      .forEach { classVisitor.addAll(it) }
   }
 
-  private fun visitFile(file: File) {
+  private fun visitFile(file: File, visitor: AggregatedDepClassVisitor) {
     when {
-      file.isJarFile() -> ZipInputStream(file.inputStream()).forEachZipEntry { inputStream, entry ->
-        if (entry.isClassFile()) {
-          visitClass(inputStream)
-        }
+      file.isAggregatedIndexFile() -> visitor.addAll(AggregatedIndex.readFrom(file))
+      // A ZipFile is used instead of a ZipInputStream so that only the entries in the aggregating
+      // packages are read, without having to inflate the other entries.
+      file.isJarFile() -> ZipFile(file).use { zipFile ->
+        zipFile.entries().asSequence()
+          .filter {
+            it.isClassFile() &&
+              AggregatedAnnotation.isInAggregatedPackage(it.name.substringBeforeLast('/'))
+          }
+          .forEach { entry -> zipFile.getInputStream(entry).use { visitClass(it, visitor) } }
+      }
+      file.isClassFile() -> if (AggregatedAnnotation.isInAggregatedPackage(file.parentFile)) {
+        file.inputStream().use { visitClass(it, visitor) }
       }
-      file.isClassFile() -> file.inputStream().use { visitClass(it) }
       else -> logger.debug("Don't know how to process file: $file")
     }
   }
 
-  private fun visitClass(classFileInputStream: InputStream) {
+  private fun visitClass(classFileInputStream: InputStream, visitor: AggregatedDepClassVisitor) {
+    // Only the class annotations are needed, so skip the method bodies and debug information.
     ClassReader(classFileInputStream).accept(
-      classVisitor,
-      ClassReader.SKIP_CODE and ClassReader.SKIP_DEBUG and ClassReader.SKIP_FRAMES
+      visitor,
+      ClassReader.SKIP_CODE or ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES
     )
   }
 
+  /** Returns an [AggregatedIndex] with the aggregated elements found by this aggregator. */
+  fun toIndex() = classVisitor.toIndex()
+
   companion object {
     fun from(
       logger: Logger,
       asmApiVersion: Int,
       input: Iterable<File>
-    ) = Aggregator(logger, asmApiVersion).apply { process(input) }
+    ) = from(logger, asmApiVersion, input, cachedIndexOf = { null }, onVisited = { _, _ -> })
+
+    /**
+     * Aggregates [input] like [from], but uses the index returned by [cachedIndexOf] for an input
+     * file instead of visiting the file, and passes the index of each file that is visited to
+     * [onVisited]. Both functions may be called concurrently.
+     */
+    fun from(
+      logger: Logger,
+      asmApiVersion: Int,
+      input: Iterable<File>,
+      cachedIndexOf: (File) -> AggregatedIndex?,
+      onVisited: (File, AggregatedIndex) -> Unit
+    ) = Aggregator(logger, asmApiVersion).apply { process(input, cachedIndexOf, onVisited) }
 
     // Converts this Type to a ClassName, used instead of ClassName.bestGuess() because ASM class
     // names are based off descriptors and uses 'reflection' naming, i.e. inner classes are split
@@ -17,6 +17,7 @@
 package dagger.hilt.android.plugin.task
 
 import dagger.hilt.android.plugin.root.AggregatedElementProxyGenerator
+import dagger.hilt.android.plugin.root.AggregatedIndex
 import dagger.hilt.android.plugin.root.ComponentTreeDepsGenerator
 import dagger.hilt.android.plugin.root.ProcessedRootSentinelGenerator
 import dagger.hilt.processor.internal.root.ir.AggregatedRootIrValidator
@@ -25,13 +26,16 @@ import javax.inject.Inject
 import org.gradle.api.DefaultTask
 import org.gradle.api.file.ConfigurableFileCollection
 import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.FileType
 import org.gradle.api.provider.Property
 import org.gradle.api.tasks.CacheableTask
 import org.gradle.api.tasks.Classpath
 import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.LocalState
 import org.gradle.api.tasks.Optional
 import org.gradle.api.tasks.OutputDirectory
 import org.gradle.api.tasks.TaskAction
+import org.gradle.work.Incremental
 import org.gradle.work.InputChanges
 import org.gradle.workers.WorkAction
 import org.gradle.workers.WorkParameters
@@ -43,15 +47,21 @@ import org.slf4j.LoggerFactory
  * Aggregates Hilt component dependencies from the compile classpath and outputs Java sources
  * with shareable component trees.
  *
- * The [compileClasspath] input is expected to contain jars or classes transformed by
+ * The [compileClasspath] input is expected to contain the aggregated indices output by
  * [dagger.hilt.android.plugin.util.AggregatedPackagesTransform].
+ *
+ * The task is incremental: the index of each input file is kept in [stateDir], and an incremental
+ * execution only visits the files reported by [InputChanges.getFileChanges] before merging them
+ * with the stored indices of the unchanged files. If the merged index is equal to the previous one,
+ * the component trees are not regenerated.
  */
 @CacheableTask
 abstract class AggregateDepsTask @Inject constructor(
   private val workerExecutor: WorkerExecutor
 ) : DefaultTask() {
 
-  // TODO(danysantiago): Make @Incremental and try to use @CompileClasspath
+  // TODO(danysantiago): Try to use @CompileClasspath
+  @get:Incremental
   @get:Classpath
   abstract val compileClasspath: ConfigurableFileCollection
 
@@ -62,6 +72,10 @@ abstract class AggregateDepsTask @Inject constructor(
   @get:OutputDirectory
   abstract val outputDir: DirectoryProperty
 
+  // Contains the merged aggregation result of the previous execution and the index of each input.
+  @get:LocalState
+  abstract val stateDir: DirectoryProperty
+
   @get:Input
   abstract val testEnvironment: Property<Boolean>
 
@@ -69,11 +83,21 @@ abstract class AggregateDepsTask @Inject constructor(
   abstract val crossCompilationRootValidationDisabled: Property<Boolean>
 
   @TaskAction
-  internal fun taskAction(@Suppress("UNUSED_PARAMETER") inputs: InputChanges) {
+  internal fun taskAction(inputs: InputChanges) {
+    val changedFiles = if (inputs.isIncremental) {
+      inputs.getFileChanges(compileClasspath)
+        .filter { it.fileType != FileType.DIRECTORY }
+        .map { it.file }
+    } else {
+      emptyList()
+    }
     workerExecutor.noIsolation().submit(WorkerAction::class.java) {
       it.compileClasspath.from(compileClasspath)
       it.asmApiVersion.set(asmApiVersion)
       it.outputDir.set(outputDir)
+      it.stateDir.set(stateDir)
+      it.incremental.set(inputs.isIncremental)
+      it.changedFiles.from(changedFiles)
       it.testEnvironment.set(testEnvironment)
       it.crossCompilationRootValidationDisabled.set(crossCompilationRootValidationDisabled)
     }
@@ -83,6 +107,9 @@ abstract class AggregateDepsTask @Inject constructor(
     val compileClasspath: ConfigurableFileCollection
     val asmApiVersion: Property<Int>
     val outputDir: DirectoryProperty
+    val stateDir: DirectoryProperty
+    val incremental: Property<Boolean>
+    val changedFiles: ConfigurableFileCollection
     val testEnvironment: Property<Boolean>
     val crossCompilationRootValidationDisabled: Property<Boolean>
   }
@@ -91,11 +118,46 @@ abstract class AggregateDepsTask @Inject constructor(
     override fun execute() {
       // Logger is not an injectable service yet: https://github.com/gradle/gradle/issues/16991
       val logger = LoggerFactory.getLogger(AggregateDepsTask::class.java)
+      val stateDir = parameters.stateDir.get()
+      val stateFile = stateDir.file(MERGED_INDEX_NAME).asFile
+      val indexStore = AggregatedIndexStore(stateDir.dir(INPUT_INDICES_DIR_NAME).asFile)
+      // The merged index is only written once an execution succeeds, so if it's missing the stored
+      // input indices may not match the previous inputs and every input is visited again.
+      val previousIndex = if (parameters.incremental.get() && stateFile.exists()) {
+        AggregatedIndex.readFrom(stateFile)
+      } else {
+        null
+      }
+      stateFile.delete()
+      stateFile.parentFile.mkdirs()
+      val changedFiles = parameters.changedFiles.files
+      if (previousIndex == null) {
+        indexStore.clear()
+      } else {
+        changedFiles.filterNot { it.exists() }.forEach { indexStore.remove(it) }
+      }
       val aggregator = Aggregator.from(
         logger = logger,
         asmApiVersion = parameters.asmApiVersion.getOrNull() ?: Opcodes.ASM7,
-        input = parameters.compileClasspath
+        input = parameters.compileClasspath,
+        cachedIndexOf = { file ->
+          if (previousIndex == null || file in changedFiles) null else indexStore.get(file)
+        },
+        onVisited = indexStore::put
       )
+      // Only a few dependencies usually change between builds, and most changes don't affect the
+      // aggregated elements, e.g. a change to a method body. If the merged result is the same as
+      // the previous one then the component trees are also the same so skip generating them.
+      val index = aggregator.toIndex()
+      if (index == previousIndex) {
+        logger.info("Hilt aggregated dependencies are unchanged, skipping component trees.")
+        index.writeTo(stateFile)
+        return
+      }
+      val outputDir = parameters.outputDir.get().asFile
+      outputDir.deleteRecursively()
+      outputDir.mkdirs()
+
       val rootsToProcess = AggregatedRootIrValidator.rootsToProcess(
         isCrossCompilationRootValidationDisabled =
           parameters.crossCompilationRootValidationDisabled.get(),
@@ -103,6 +165,7 @@ abstract class AggregateDepsTask @Inject constructor(
         aggregatedRoots = aggregator.aggregatedRoots
       )
       if (rootsToProcess.isEmpty()) {
+        index.writeTo(stateFile)
         return
       }
       val componentTrees = ComponentTreeDepsIrCreator.components(
@@ -117,18 +180,24 @@ abstract class AggregateDepsTask @Inject constructor(
       )
       ComponentTreeDepsGenerator(
         proxies = aggregator.allAggregatedDepProxies.associate { it.value to it.fqName },
-        outputDir = parameters.outputDir.get().asFile
+        outputDir = outputDir
       ).let { generator ->
         componentTrees.forEach { generator.generate(it) }
       }
-      AggregatedElementProxyGenerator(parameters.outputDir.get().asFile).let { generator ->
+      AggregatedElementProxyGenerator(outputDir).let { generator ->
         (aggregator.allAggregatedDepProxies - aggregator.aggregatedDepProxies).forEach {
           generator.generate(it)
         }
       }
-      ProcessedRootSentinelGenerator(parameters.outputDir.get().asFile).let { generator ->
+      ProcessedRootSentinelGenerator(outputDir).let { generator ->
         rootsToProcess.map { it.root }.forEach { generator.generate(it) }
       }
+      index.writeTo(stateFile)
     }
   }
+
+  companion object {
+    private const val MERGED_INDEX_NAME = "merged.idx"
+    private const val INPUT_INDICES_DIR_NAME = "inputs"
+  }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.android.plugin.task
+
+import dagger.hilt.android.plugin.root.AggregatedIndex
+import java.io.File
+import java.security.MessageDigest
+
+/**
+ * Stores the [AggregatedIndex] of each input file of [AggregateDepsTask] between executions, so
+ * that an incremental execution only visits the input files that changed.
+ *
+ * Only non-empty indices are stored, so an input file without an entry has no aggregated elements.
+ * Entries are named after a hash of the input file's absolute path.
+ */
+internal class AggregatedIndexStore(private val dir: File) {
+
+  /** Removes every stored index. */
+  fun clear() {
+    dir.deleteRecursively()
+    dir.mkdirs()
+  }
+
+  fun get(input: File): AggregatedIndex {
+    val entry = entryOf(input)
+    return if (entry.exists()) AggregatedIndex.readFrom(entry) else AggregatedIndex.EMPTY
+  }
+
+  fun put(input: File, index: AggregatedIndex) {
+    if (index.isEmpty()) {
+      remove(input)
+    } else {
+      index.writeTo(entryOf(input))
+    }
+  }
+
+  fun remove(input: File) {
+    entryOf(input).delete()
+  }
+
+  private fun entryOf(input: File): File {
+    val digest = MessageDigest.getInstance("SHA-1").digest(input.absolutePath.toByteArray())
+    return File(dir, digest.joinToString("") { "%02x".format(it) } + ".idx")
+  }
+}
@@ -18,9 +18,8 @@ package dagger.hilt.android.plugin.task
 import dagger.hilt.android.plugin.AndroidEntryPointClassTransformer
 import dagger.hilt.android.plugin.HiltExtension
 import dagger.hilt.android.plugin.util.getCompileKotlin
-import dagger.hilt.android.plugin.util.isClassFile
-import dagger.hilt.android.plugin.util.isJarFile
 import java.io.File
+import java.util.stream.Collectors
 import javax.inject.Inject
 import org.gradle.api.Action
 import org.gradle.api.DefaultTask
@@ -71,18 +70,14 @@ abstract class HiltTransformTestClassesTask @Inject constructor(
         sourceRootOutputDir = outputDir,
         copyNonTransformed = false
       )
-      // Parse the classpath in reverse so that we respect overwrites, if it ever happens.
-      allInputs.reversed().forEach {
-        if (it.isDirectory) {
-          it.walkTopDown().forEach { file ->
-            if (file.isClassFile()) {
-              classTransformer.transformFile(file)
-            }
-          }
-        } else if (it.isJarFile()) {
-          classTransformer.transformJarContents(it)
-        }
-      }
+      // Parse the classpath in reverse so that we respect overwrites, if it ever happens. Reading
+      // the inputs is most of the work since only a few classes are transformed, so the inputs are
+      // read in parallel and then the candidate classes are transformed in order, one at a time,
+      // since the transformer's ClassPool is shared.
+      allInputs.reversed().parallelStream()
+        .map { classTransformer.readCandidateClasses(it) }
+        .collect(Collectors.toList())
+        .forEach { classes -> classes.forEach { classTransformer.transformClassBytes(it) } }
     }
   }
 
@@ -16,27 +16,36 @@
 
 package dagger.hilt.android.plugin.util
 
-import dagger.hilt.android.plugin.root.AggregatedAnnotation
-import java.io.ByteArrayOutputStream
-import java.io.File
-import java.util.zip.ZipEntry
-import java.util.zip.ZipInputStream
-import java.util.zip.ZipOutputStream
+import dagger.hilt.android.plugin.root.AggregatedIndex
+import dagger.hilt.android.plugin.task.Aggregator
 import org.gradle.api.artifacts.transform.CacheableTransform
 import org.gradle.api.artifacts.transform.InputArtifact
 import org.gradle.api.artifacts.transform.TransformAction
 import org.gradle.api.artifacts.transform.TransformOutputs
 import org.gradle.api.artifacts.transform.TransformParameters
 import org.gradle.api.file.FileSystemLocation
+import org.gradle.api.logging.Logging
+import org.gradle.api.provider.Property
 import org.gradle.api.provider.Provider
 import org.gradle.api.tasks.Classpath
+import org.gradle.api.tasks.Input
 
 /**
- * A transform that outputs classes and jars containing only classes in key aggregating Hilt
- * packages that are used to pass dependencies between compilation units.
+ * A transform that outputs an [AggregatedIndex] of the classes in key aggregating Hilt packages
+ * that are used to pass dependencies between compilation units.
+ *
+ * Since the transform is cacheable, the aggregated classes of each dependency are only parsed once
+ * and the aggregating task merges the small indices instead of re-reading the classes.
  */
 @CacheableTransform
-abstract class AggregatedPackagesTransform : TransformAction<TransformParameters.None> {
+abstract class AggregatedPackagesTransform :
+  TransformAction<AggregatedPackagesTransform.Parameters> {
+
+  interface Parameters : TransformParameters {
+    @get:Input
+    val asmApiVersion: Property<Int>
+  }
+
   // TODO(danysantiago): Make incremental by using InputChanges and try to use @CompileClasspath
   @get:Classpath
   @get:InputArtifact
@@ -44,55 +53,16 @@ abstract class AggregatedPackagesTransform : TransformAction<TransformParameters
 
   override fun transform(outputs: TransformOutputs) {
     val input = inputArtifactProvider.get().asFile
-    when {
-      input.isFile -> transformFile(outputs, input)
-      input.isDirectory -> input.walkTopDown().filter { it.isFile }.forEach {
-        transformFile(outputs, it)
-      }
-      else -> error("File/directory does not exist: ${input.absolutePath}")
+    if (!input.exists()) {
+      error("File/directory does not exist: ${input.absolutePath}")
     }
-  }
-
-  private fun transformFile(outputs: TransformOutputs, file: File) {
-    if (file.isJarFile()) {
-      var atLeastOneEntry = false
-      // TODO(danysantiago): This is an in-memory buffer stream, consider using a temp file.
-      val tmpOutputStream = ByteArrayOutputStream()
-      ZipOutputStream(tmpOutputStream).use { outputStream ->
-        ZipInputStream(file.inputStream()).forEachZipEntry { inputStream, inputEntry ->
-          if (inputEntry.isClassFile()) {
-            val parentDirectory = inputEntry.name.substringBeforeLast('/')
-            val match = AggregatedAnnotation.AGGREGATED_PACKAGES.any { aggregatedPackage ->
-              parentDirectory.endsWith(aggregatedPackage)
-            }
-            if (match) {
-              outputStream.putNextEntry(ZipEntry(inputEntry.name))
-              inputStream.copyTo(outputStream)
-              outputStream.closeEntry()
-              atLeastOneEntry = true
-            }
-          }
-        }
-      }
-      if (atLeastOneEntry) {
-        outputs.file(JAR_NAME).outputStream().use { tmpOutputStream.writeTo(it) }
-      }
-    } else if (file.isClassFile()) {
-      // If transforming a file, check if the parent directory matches one of the known aggregated
-      // packages structure. File and Path APIs are used to avoid OS-specific issues when comparing
-      // paths.
-      val parentDirectory: File = file.parentFile
-      val match = AggregatedAnnotation.AGGREGATED_PACKAGES.any { aggregatedPackage ->
-        parentDirectory.endsWith(aggregatedPackage)
-      }
-      if (match) {
-        outputs.file(file)
-      }
+    val index = Aggregator.from(
+      logger = Logging.getLogger(AggregatedPackagesTransform::class.java),
+      asmApiVersion = parameters.asmApiVersion.get(),
+      input = listOf(input)
+    ).toIndex()
+    if (!index.isEmpty()) {
+      index.writeTo(outputs.file(AggregatedIndex.FILE_NAME))
     }
   }
-
-  companion object {
-    // The output file name containing classes in the aggregated packages.
-    val JAR_NAME = "hiltAggregated.jar"
-  }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.google.common.truth.Truth.assertThat
+import java.io.File
+import org.gradle.testkit.runner.TaskOutcome
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+/**
+ * Tests that the aggregating task finds the Hilt metadata of library dependencies through the
+ * indices output by the aggregating transform, and only regenerates the component trees when the
+ * aggregated metadata changes.
+ *
+ * To run these tests first deploy artifacts to local maven via util/install-local-snapshot.sh.
+ */
+class AggregatingTaskTest {
+  @get:Rule
+  val testProjectDir = TemporaryFolder()
+
+  lateinit var gradleRunner: GradleTestRunner
+
+  @Before
+  fun setup() {
+    gradleRunner = GradleTestRunner(testProjectDir)
+    gradleRunner.addHiltOption("enableAggregatingTask = true")
+    gradleRunner.addDependencies(
+      "implementation 'androidx.appcompat:appcompat:1.1.0'",
+      "implementation 'com.google.dagger:hilt-android:LOCAL-SNAPSHOT'",
+      "annotationProcessor 'com.google.dagger:hilt-compiler:LOCAL-SNAPSHOT'",
+      "implementation project(':libraryA')",
+    )
+    gradleRunner.addSrc(
+      srcPath = "minimal/MyApp.java",
+      srcContent =
+        """
+        package minimal;
+
+        import android.app.Application;
+        import liba.LibraryA;
+
+        @dagger.hilt.android.HiltAndroidApp
+        public class MyApp extends Application {
+          @javax.inject.Inject
+          LibraryA libraryA;
+        }
+        """.trimIndent()
+    )
+    gradleRunner.setAppClassName(".MyApp")
+
+    File("src/test/data/java-libraryA")
+      .copyRecursively(File(testProjectDir.root, "libraryA"))
+    File("src/test/data/java-libraryB")
+      .copyRecursively(File(testProjectDir.root, "libraryB"))
+    testProjectDir.newFile("settings.gradle").apply {
+      writeText(
+        """
+        include ':libraryA'
+        include ':libraryB'
+        """.trimIndent()
+      )
+    }
+  }
+
+  // Verifies that the module of a transitive library dependency is aggregated into the app root.
+  @Test
+  fun libraryModuleAggregated() {
+    val result = gradleRunner.build()
+
+    assertThat(result.getTask(":hiltAggregateDepsDebug").outcome).isEqualTo(TaskOutcome.SUCCESS)
+    assertThat(result.getTask(":assembleDebug").outcome).isEqualTo(TaskOutcome.SUCCESS)
+    assertThat(componentTreeDeps().readText()).contains("_libb_LibraryBModule")
+  }
+
+  // Verifies that a library change that doesn't affect the aggregated elements, e.g. a change to a
+  // method body, doesn't regenerate the component trees.
+  @Test
+  fun libraryMethodBodyChanged_componentTreesNotRegenerated() {
+    gradleRunner.build()
+    val componentTreeDeps = componentTreeDeps()
+    val originalContent = componentTreeDeps.readText()
+    val originalLastModified = componentTreeDeps.lastModified()
+
+    File(testProjectDir.root, "libraryB/src/main/java/libb/LibraryBModule.java").writeText(
+      """
+      package libb;
+
+      import dagger.Module;
+      import dagger.Provides;
+      import dagger.hilt.InstallIn;
+      import dagger.hilt.components.SingletonComponent;
+
+      @Module
+      @InstallIn(SingletonComponent.class)
+      public final class LibraryBModule {
+        @Provides
+        public static LibraryBProvided provideB() {
+          LibraryBProvided provided = new LibraryBProvided();
+          return provided;
+        }
+      }
+      """.trimIndent()
+    )
+    val result = gradleRunner.build()
+
+    assertThat(result.getTask(":libraryB:compileJava").outcome).isEqualTo(TaskOutcome.SUCCESS)
+    assertThat(result.getTask(":hiltAggregateDepsDebug").outcome)
+      .isAnyOf(TaskOutcome.SUCCESS, TaskOutcome.UP_TO_DATE)
+    assertThat(componentTreeDeps.readText()).isEqualTo(originalContent)
+    assertThat(componentTreeDeps.lastModified()).isEqualTo(originalLastModified)
+  }
+
+  // Verifies that a new module in a library regenerates the component trees.
+  @Test
+  fun libraryModuleAdded_componentTreesRegenerated() {
+    gradleRunner.build()
+    assertThat(componentTreeDeps().readText()).doesNotContain("_libb_LibraryBOtherModule")
+
+    libraryBOtherModule().writeText(LIBRARY_B_OTHER_MODULE)
+    val result = gradleRunner.build()
+
+    assertThat(result.getTask(":hiltAggregateDepsDebug").outcome).isEqualTo(TaskOutcome.SUCCESS)
+    assertThat(componentTreeDeps().readText()).contains("_libb_LibraryBOtherModule")
+  }
+
+  // Verifies that a module removed from a library is removed from the component trees.
+  @Test
+  fun libraryModuleRemoved_componentTreesRegenerated() {
+    libraryBOtherModule().writeText(LIBRARY_B_OTHER_MODULE)
+    gradleRunner.build()
+    assertThat(componentTreeDeps().readText()).contains("_libb_LibraryBOtherModule")
+
+    libraryBOtherModule().delete()
+    val result = gradleRunner.build()
+
+    assertThat(result.getTask(":hiltAggregateDepsDebug").outcome).isEqualTo(TaskOutcome.SUCCESS)
+    assertThat(componentTreeDeps().readText()).doesNotContain("_libb_LibraryBOtherModule")
+    assertThat(componentTreeDeps().readText()).contains("_libb_LibraryBModule")
+  }
+
+  private fun libraryBOtherModule() =
+    File(testProjectDir.root, "libraryB/src/main/java/libb/LibraryBOtherModule.java")
+
+  private fun componentTreeDeps() = File(
+    testProjectDir.root,
+    "build/generated/hilt/component_trees/debug/minimal/MyApp_ComponentTreeDeps.java"
+  )
+
+  companion object {
+    private val LIBRARY_B_OTHER_MODULE =
+      """
+      package libb;
+
+      import dagger.Module;
+      import dagger.Provides;
+      import dagger.hilt.InstallIn;
+      import dagger.hilt.components.SingletonComponent;
+
+      @Module
+      @InstallIn(SingletonComponent.class)
+      public final class LibraryBOtherModule {
+        @Provides
+        public static String provideString() {
+          return "";
+        }
+      }
+      """.trimIndent()
+  }
+}
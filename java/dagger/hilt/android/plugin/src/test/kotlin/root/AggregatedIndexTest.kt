@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package root
+
+import com.google.common.truth.Truth.assertThat
+import com.squareup.javapoet.ClassName
+import dagger.hilt.android.plugin.root.AggregatedIndex
+import dagger.hilt.processor.internal.root.ir.AggregatedDepsIr
+import dagger.hilt.processor.internal.root.ir.AggregatedEarlyEntryPointIr
+import dagger.hilt.processor.internal.root.ir.AggregatedElementProxyIr
+import dagger.hilt.processor.internal.root.ir.AggregatedRootIr
+import dagger.hilt.processor.internal.root.ir.AggregatedUninstallModulesIr
+import dagger.hilt.processor.internal.root.ir.AliasOfPropagatedDataIr
+import dagger.hilt.processor.internal.root.ir.DefineComponentClassesIr
+import dagger.hilt.processor.internal.root.ir.ProcessedRootSentinelIr
+import org.junit.Assert.fail
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class AggregatedIndexTest {
+  @get:Rule val tempFolder = TemporaryFolder()
+
+  @Test
+  fun roundTrip() {
+    val index = AggregatedIndex(
+      aggregatedRoots = setOf(
+        AggregatedRootIr(
+          fqName = ClassName.get("hilt_aggregated_deps", "_minimal_MyApp"),
+          root = ClassName.get("minimal", "MyApp"),
+          originatingRoot = ClassName.get("minimal", "MyApp"),
+          rootAnnotation = ClassName.get("dagger.hilt.android", "HiltAndroidApp")
+        )
+      ),
+      processedRoots = setOf(
+        ProcessedRootSentinelIr(
+          fqName = ClassName.get("dagger.hilt.internal.processedrootsentinel.codegen", "_MyApp"),
+          roots = listOf(ClassName.get("minimal", "MyApp"), ClassName.get("minimal", "MyTest"))
+        )
+      ),
+      defineComponentDeps = setOf(
+        DefineComponentClassesIr(
+          fqName = ClassName.get("dagger.hilt.processor.internal.definecomponent.codegen", "_Foo"),
+          component = ClassName.get("minimal", "FooComponent")
+        )
+      ),
+      aliasOfDeps = setOf(
+        AliasOfPropagatedDataIr(
+          fqName = ClassName.get("dagger.hilt.processor.internal.aliasof.codegen", "_Alias"),
+          defineComponentScope = ClassName.get("javax.inject", "Singleton"),
+          alias = ClassName.get("minimal", "AliasScope")
+        )
+      ),
+      aggregatedDeps = setOf(
+        // A module nested in another class, with no test, replaces or entry points.
+        AggregatedDepsIr(
+          fqName = ClassName.get("hilt_aggregated_deps", "_minimal_Outer_FooModule"),
+          components = listOf(
+            ClassName.get("dagger.hilt.components", "SingletonComponent"),
+            ClassName.get("dagger.hilt.android.components", "ActivityComponent")
+          ),
+          test = null,
+          replaces = emptyList(),
+          module = ClassName.get("minimal", "Outer", "FooModule"),
+          entryPoint = null,
+          componentEntryPoint = null
+        ),
+        // A test entry point with no components to replace.
+        AggregatedDepsIr(
+          fqName = ClassName.get("hilt_aggregated_deps", "_minimal_MyTest_BarEntryPoint"),
+          components = listOf(ClassName.get("dagger.hilt.components", "SingletonComponent")),
+          test = ClassName.get("minimal", "MyTest"),
+          replaces = emptyList(),
+          module = null,
+          entryPoint = ClassName.get("minimal", "MyTest", "Bar", "BarEntryPoint"),
+          componentEntryPoint = null
+        ),
+        AggregatedDepsIr(
+          fqName = ClassName.get("hilt_aggregated_deps", "_minimal_FakeModule"),
+          components = listOf(ClassName.get("dagger.hilt.components", "SingletonComponent")),
+          test = null,
+          replaces = listOf(ClassName.get("minimal", "FooModule")),
+          module = ClassName.get("minimal", "FakeModule"),
+          entryPoint = null,
+          componentEntryPoint = null
+        )
+      ),
+      aggregatedDepProxies = setOf(
+        AggregatedElementProxyIr(
+          fqName = ClassName.get("minimal", "_minimal_FooModule"),
+          value = ClassName.get("hilt_aggregated_deps", "_minimal_Outer_FooModule")
+        )
+      ),
+      allAggregatedDepProxies = setOf(
+        AggregatedElementProxyIr(
+          fqName = ClassName.get("minimal", "_minimal_FooModule"),
+          value = ClassName.get("hilt_aggregated_deps", "_minimal_Outer_FooModule")
+        )
+      ),
+      uninstallModulesDeps = setOf(
+        AggregatedUninstallModulesIr(
+          fqName = ClassName.get("dagger.hilt.android.internal.uninstallmodules.codegen", "_T"),
+          test = ClassName.get("minimal", "MyTest"),
+          uninstallModules = listOf(ClassName.get("minimal", "Outer", "FooModule"))
+        )
+      ),
+      earlyEntryPointDeps = setOf(
+        AggregatedEarlyEntryPointIr(
+          fqName = ClassName.get("dagger.hilt.android.internal.earlyentrypoint.codegen", "_E"),
+          earlyEntryPoint = ClassName.get("minimal", "EarlyEntryPoint")
+        )
+      ),
+    )
+    val file = tempFolder.newFile(AggregatedIndex.FILE_NAME)
+
+    index.writeTo(file)
+
+    assertThat(AggregatedIndex.readFrom(file)).isEqualTo(index)
+  }
+
+  @Test
+  fun roundTrip_empty() {
+    val index = AggregatedIndex(
+      aggregatedRoots = emptySet(),
+      processedRoots = emptySet(),
+      defineComponentDeps = emptySet(),
+      aliasOfDeps = emptySet(),
+      aggregatedDeps = emptySet(),
+      aggregatedDepProxies = emptySet(),
+      allAggregatedDepProxies = emptySet(),
+      uninstallModulesDeps = emptySet(),
+      earlyEntryPointDeps = emptySet(),
+    )
+    val file = tempFolder.newFile(AggregatedIndex.FILE_NAME)
+
+    index.writeTo(file)
+
+    val readIndex = AggregatedIndex.readFrom(file)
+    assertThat(readIndex).isEqualTo(index)
+    assertThat(readIndex.isEmpty()).isTrue()
+  }
+
+  @Test
+  fun readFrom_unsupportedVersion() {
+    val file = tempFolder.newFile(AggregatedIndex.FILE_NAME)
+    file.writeText("hilt-aggregated-index 0\n")
+
+    try {
+      AggregatedIndex.readFrom(file)
+      fail("Expected reading an index with an unsupported version to fail.")
+    } catch (e: IllegalStateException) {
+      assertThat(e).hasMessageThat().contains("Unsupported Hilt aggregated index")
+    }
+  }
+}
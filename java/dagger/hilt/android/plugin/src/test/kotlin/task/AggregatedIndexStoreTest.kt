@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package task
+
+import com.google.common.truth.Truth.assertThat
+import com.squareup.javapoet.ClassName
+import dagger.hilt.android.plugin.root.AggregatedIndex
+import dagger.hilt.android.plugin.task.AggregatedIndexStore
+import dagger.hilt.processor.internal.root.ir.AggregatedElementProxyIr
+import java.io.File
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class AggregatedIndexStoreTest {
+  @get:Rule val tempFolder = TemporaryFolder()
+
+  private lateinit var storeDir: File
+  private lateinit var store: AggregatedIndexStore
+  private val input = File("/classpath/library.jar")
+
+  @Before
+  fun setup() {
+    storeDir = tempFolder.newFolder("inputs")
+    store = AggregatedIndexStore(storeDir)
+  }
+
+  @Test
+  fun putAndGet() {
+    store.put(input, INDEX)
+
+    assertThat(store.get(input)).isEqualTo(INDEX)
+    assertThat(store.get(File("/classpath/other.jar"))).isEqualTo(AggregatedIndex.EMPTY)
+  }
+
+  @Test
+  fun emptyIndexNotStored() {
+    store.put(input, INDEX)
+    store.put(input, AggregatedIndex.EMPTY)
+
+    assertThat(store.get(input)).isEqualTo(AggregatedIndex.EMPTY)
+    assertThat(storeDir.listFiles()).isEmpty()
+  }
+
+  @Test
+  fun remove() {
+    store.put(input, INDEX)
+    store.remove(input)
+
+    assertThat(store.get(input)).isEqualTo(AggregatedIndex.EMPTY)
+  }
+
+  @Test
+  fun clear() {
+    store.put(input, INDEX)
+    store.clear()
+
+    assertThat(store.get(input)).isEqualTo(AggregatedIndex.EMPTY)
+    assertThat(storeDir.isDirectory).isTrue()
+  }
+
+  companion object {
+    private val INDEX = AggregatedIndex.EMPTY.copy(
+      aggregatedDepProxies = setOf(
+        AggregatedElementProxyIr(
+          fqName = ClassName.get("liba", "_liba_LibraryAModule"),
+          value = ClassName.get("liba", "LibraryAModule")
+        )
+      )
+    )
+  }
+}
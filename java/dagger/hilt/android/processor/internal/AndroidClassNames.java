@@ -110,6 +110,12 @@ public final class AndroidClassNames {
       get("dagger.hilt.android.internal.lifecycle", "HiltViewModelMap");
   public static final ClassName HILT_VIEW_MODEL_KEYS_QUALIFIER =
       get("dagger.hilt.android.internal.lifecycle", "HiltViewModelMap", "KeySet");
+  public static final ClassName HILT_VIEW_MODEL_ACCESSORS_QUALIFIER =
+      get("dagger.hilt.android.internal.lifecycle", "HiltViewModelMap", "Accessors");
+  public static final ClassName HILT_VIEW_MODEL_KEYED_QUALIFIER =
+      get("dagger.hilt.android.internal.lifecycle", "HiltViewModelMap", "Keyed");
+  public static final ClassName HILT_VIEW_MODEL_ACCESSOR =
+      get("dagger.hilt.android.internal.lifecycle", "HiltViewModelAccessor");
   public static final ClassName VIEW_MODEL = get("androidx.lifecycle", "ViewModel");
   public static final ClassName VIEW_MODEL_PROVIDER_FACTORY =
       get("androidx.lifecycle", "ViewModelProvider", "Factory");
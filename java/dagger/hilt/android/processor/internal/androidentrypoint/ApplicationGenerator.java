@@ -16,6 +16,7 @@
 
 package dagger.hilt.android.processor.internal.androidentrypoint;
 
+import static dagger.hilt.processor.internal.HiltCompilerOptions.useBackgroundSingletonComponentCreation;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
@@ -71,7 +72,11 @@ public final class ApplicationGenerator {
     Generators.copySuppressAnnotations(metadata.element(), typeSpecBuilder);
     Generators.addComponentOverride(metadata, typeSpecBuilder);
 
-      typeSpecBuilder.addMethod(onCreateMethod());
+    if (useBackgroundSingletonComponentCreation(env)) {
+      typeSpecBuilder.addMethod(attachBaseContextMethod());
+    }
+
+    typeSpecBuilder.addMethod(onCreateMethod());
 
     JavaFile.builder(metadata.elementClassName().packageName(), typeSpecBuilder.build())
         .build()
@@ -130,6 +135,25 @@ public final class ApplicationGenerator {
         .build();
   }
 
+  // @CallSuper
+  // @Override
+  // protected void attachBaseContext(Context base) {
+  //   super.attachBaseContext(base);
+  //   componentManager.createComponentInBackground();
+  // }
+  private MethodSpec attachBaseContextMethod() {
+    return MethodSpec.methodBuilder("attachBaseContext")
+        .addAnnotation(AndroidClassNames.CALL_SUPER)
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PROTECTED)
+        .addParameter(AndroidClassNames.CONTEXT, "base")
+        .addStatement("super.attachBaseContext(base)")
+        // Content providers are initialized between attachBaseContext() and onCreate(), so
+        // starting here lets the component creation overlap with their initialization.
+        .addStatement("$N.createComponentInBackground()", metadata.componentManagerParam())
+        .build();
+  }
+
   // @CallSuper
   // @Override
   // public void onCreate() {
@@ -42,7 +42,17 @@ import javax.lang.model.util.Elements
  *     @IntoMap
  *     @StringKey("pkg.$")
  *     @HiltViewModelMap
- *     public abstract ViewModel bind($ vm)
+ *     public abstract ViewModel binds($ vm)
+ *
+ *     @Binds
+ *     @HiltViewModelMap.Keyed("pkg.$")
+ *     public abstract ViewModel bindsKeyed($ vm)
+ *   }
+ *   @EntryPoint
+ *   @InstallIn(ViewModelComponent.class)
+ *   public interface ViewModelEntryPoint {
+ *     @HiltViewModelMap.Keyed("pkg.$")
+ *     ViewModel pkg_$();
  *   }
  *   @Module
  *   @InstallIn(ActivityRetainedComponent.class)
@@ -53,6 +63,19 @@ import javax.lang.model.util.Elements
  *     public static String provide() {
  *      return "pkg.$";
  *     }
+ *
+ *     @Provides
+ *     @IntoMap
+ *     @StringKey("pkg.$")
+ *     @HiltViewModelMap.Accessors
+ *     public static HiltViewModelAccessor provideAccessor() {
+ *       return new HiltViewModelAccessor() {
+ *         @Override
+ *         public ViewModel get(ViewModelComponent viewModelComponent) {
+ *           return EntryPoints.get(viewModelComponent, ViewModelEntryPoint.class).pkg_$();
+ *         }
+ *       };
+ *     }
  *   }
  * }
  * ```
@@ -76,6 +99,7 @@ internal class ViewModelModuleGenerator(
       )
       .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
       .addType(getBindsModuleTypeSpec())
+      .addType(getEntryPointTypeSpec())
       .addType(getKeyModuleTypeSpec())
       .addMethod(
         MethodSpec.constructorBuilder()
@@ -99,6 +123,7 @@ internal class ViewModelModuleGenerator(
         .build()
     )
     .addMethod(getViewModelBindsMethod())
+    .addMethod(getViewModelKeyedBindsMethod())
     .build()
 
   private fun getViewModelBindsMethod() =
@@ -116,6 +141,36 @@ internal class ViewModelModuleGenerator(
       .addParameter(injectedViewModel.className, "vm")
       .build()
 
+  private fun getViewModelKeyedBindsMethod() =
+    MethodSpec.methodBuilder("bindsKeyed")
+      .addAnnotation(ClassNames.BINDS)
+      .addAnnotation(keyedQualifier())
+      .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+      .returns(AndroidClassNames.VIEW_MODEL)
+      .addParameter(injectedViewModel.className, "vm")
+      .build()
+
+  // The entry point gives each ViewModel its own component method, so that creating a ViewModel
+  // does not require the component to build the provider map of every ViewModel in the app.
+  private fun getEntryPointTypeSpec() =
+    TypeSpec.interfaceBuilder(ENTRY_POINT_NAME)
+      .addOriginatingElement(injectedViewModel.typeElement)
+      .addAnnotation(ClassNames.ENTRY_POINT)
+      .addAnnotation(
+        AnnotationSpec.builder(ClassNames.INSTALL_IN)
+          .addMember("value", "$T.class", AndroidClassNames.VIEW_MODEL_COMPONENT)
+          .build()
+      )
+      .addModifiers(Modifier.PUBLIC)
+      .addMethod(
+        MethodSpec.methodBuilder(entryPointMethodName())
+          .addAnnotation(keyedQualifier())
+          .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+          .returns(AndroidClassNames.VIEW_MODEL)
+          .build()
+      )
+      .build()
+
   private fun getKeyModuleTypeSpec() = createModuleTypeSpec(
     className = "KeyModule",
     component = AndroidClassNames.ACTIVITY_RETAINED_COMPONENT
@@ -127,6 +182,7 @@ internal class ViewModelModuleGenerator(
         .build()
     )
     .addMethod(getViewModelKeyProvidesMethod())
+    .addMethod(getViewModelAccessorProvidesMethod())
     .build()
 
   private fun getViewModelKeyProvidesMethod() =
@@ -139,6 +195,52 @@ internal class ViewModelModuleGenerator(
       .addStatement("return $S", injectedViewModel.className.reflectionName())
       .build()
 
+  private fun getViewModelAccessorProvidesMethod() =
+    MethodSpec.methodBuilder("provideAccessor")
+      .addAnnotation(ClassNames.PROVIDES)
+      .addAnnotation(ClassNames.INTO_MAP)
+      .addAnnotation(
+        AnnotationSpec.builder(ClassNames.STRING_KEY)
+          .addMember("value", S, injectedViewModel.className.reflectionName())
+          .build()
+      )
+      .addAnnotation(AndroidClassNames.HILT_VIEW_MODEL_ACCESSORS_QUALIFIER)
+      .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+      .returns(AndroidClassNames.HILT_VIEW_MODEL_ACCESSOR)
+      .addStatement(
+        "return $L",
+        TypeSpec.anonymousClassBuilder("")
+          .addSuperinterface(AndroidClassNames.HILT_VIEW_MODEL_ACCESSOR)
+          .addMethod(
+            MethodSpec.methodBuilder("get")
+              .addAnnotation(Override::class.java)
+              .addModifiers(Modifier.PUBLIC)
+              .returns(AndroidClassNames.VIEW_MODEL)
+              .addParameter(AndroidClassNames.VIEW_MODEL_COMPONENT, "viewModelComponent")
+              .addStatement(
+                "return $T.get(viewModelComponent, $T.class).$N()",
+                ClassNames.ENTRY_POINTS,
+                injectedViewModel.modulesClassName.nestedClass(ENTRY_POINT_NAME),
+                entryPointMethodName()
+              )
+              .build()
+          )
+          .build()
+      )
+      .build()
+
+  private fun keyedQualifier() =
+    AnnotationSpec.builder(AndroidClassNames.HILT_VIEW_MODEL_KEYED_QUALIFIER)
+      .addMember("value", S, injectedViewModel.className.reflectionName())
+      .build()
+
+  // Entry point methods of every ViewModel are implemented by the same component, so the method
+  // name must map each fully qualified name of a ViewModel to a distinct identifier. '$' is kept as
+  // is, '.' becomes '_' and '_' is escaped as "_1". Since '.' is never followed by a digit in a
+  // class name the encoding is reversible, e.g. "a.b_c" -> "a_b_1c" and "a_b.c" -> "a_1b_c".
+  private fun entryPointMethodName() =
+    injectedViewModel.className.reflectionName().replace("_", "_1").replace('.', '_')
+
   private fun createModuleTypeSpec(className: String, component: ClassName) =
     TypeSpec.classBuilder(className)
       .addOriginatingElement(injectedViewModel.typeElement)
@@ -152,6 +254,8 @@ internal class ViewModelModuleGenerator(
 
   companion object {
 
+    private const val ENTRY_POINT_NAME = "ViewModelEntryPoint"
+
     const val L = "\$L"
     const val T = "\$T"
     const val N = "\$N"
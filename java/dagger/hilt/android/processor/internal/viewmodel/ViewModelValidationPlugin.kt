@@ -81,12 +81,20 @@ class ViewModelValidationPlugin : BindingGraphPlugin {
     // @HiltViewModelMap
     // abstract ViewModel bindViewModel(FooViewModel vm)
     //
-    // So we check that it is a multibinding contribution with the internal qualifier.
+    // or bound with the keyed internal qualifier for the generated entry point
+    // @Binds
+    // @HiltViewModelMap.Keyed(...)
+    // abstract ViewModel bindViewModelKeyed(FooViewModel vm)
+    //
+    // So we check that it is a multibinding contribution with the internal qualifier or a binding
+    // with the keyed internal qualifier.
     // TODO(erichang): Should we check for even more things?
-    return source is Binding &&
-      source.key().qualifier().isPresent() &&
-      ClassName.get(source.key().qualifier().get().getAnnotationType()) ==
-      AndroidClassNames.HILT_VIEW_MODEL_MAP_QUALIFIER &&
-      source.key().multibindingContributionIdentifier().isPresent()
+    if (source !is Binding || !source.key().qualifier().isPresent()) {
+      return false
+    }
+    val qualifier = ClassName.get(source.key().qualifier().get().getAnnotationType())
+    return (qualifier == AndroidClassNames.HILT_VIEW_MODEL_MAP_QUALIFIER &&
+      source.key().multibindingContributionIdentifier().isPresent()) ||
+      qualifier == AndroidClassNames.HILT_VIEW_MODEL_KEYED_QUALIFIER
   }
 }
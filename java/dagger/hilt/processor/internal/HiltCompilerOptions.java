@@ -95,6 +95,39 @@ public final class HiltCompilerOptions {
     return BooleanOption.USE_FRAGMENT_GET_CONTEXT_FIX.get(env);
   }
 
+  /**
+   * Returns {@code true} if the generated {@link dagger.hilt.android.HiltAndroidApp} base class
+   * should start creating the {@link dagger.hilt.components.SingletonComponent} on a background
+   * thread when the application context is attached, rather than on the main thread the first time
+   * the component is requested (typically in {@code Application#onCreate()}).
+   *
+   * <p>Callers that request the component, including entry points and early entry points, block
+   * until its creation completes.
+   */
+  public static boolean useBackgroundSingletonComponentCreation(ProcessingEnvironment env) {
+    return BooleanOption.USE_BACKGROUND_SINGLETON_COMPONENT_CREATION.get(env);
+  }
+
+  /**
+   * Returns {@code true} if a startup profile should be generated for each {@link
+   * dagger.hilt.android.HiltAndroidApp} root.
+   *
+   * <p>The profile is written to the generated sources output as {@code
+   * <App>_HiltStartupProfile.txt}, in the human-readable ART baseline profile format, so that
+   * builds can merge it into the baseline profile of the app without packaging it.
+   */
+  public static boolean isStartupProfileGenerationEnabled(ProcessingEnvironment env) {
+    return BooleanOption.GENERATE_STARTUP_PROFILE.get(env);
+  }
+
+  /**
+   * Returns {@code true} if the time taken to process each root should be reported as a note, e.g.
+   * to find the test roots that are the most expensive to process.
+   */
+  public static boolean isRootProcessingTimeReportEnabled(ProcessingEnvironment env) {
+    return BooleanOption.REPORT_ROOT_PROCESSING_TIME.get(env);
+  }
+
   /** Processor options which can have true or false values. */
   private enum BooleanOption {
     /** Do not use! This is for internal use only. */
@@ -111,7 +144,14 @@ public final class HiltCompilerOptions {
     SHARE_TEST_COMPONENTS(
         "shareTestComponents", true),
 
-    USE_FRAGMENT_GET_CONTEXT_FIX("android.useFragmentGetContextFix", false);
+    USE_FRAGMENT_GET_CONTEXT_FIX("android.useFragmentGetContextFix", false),
+
+    USE_BACKGROUND_SINGLETON_COMPONENT_CREATION(
+        "android.useBackgroundSingletonComponentCreation", false),
+
+    GENERATE_STARTUP_PROFILE("android.generateStartupProfile", false),
+
+    REPORT_ROOT_PROCESSING_TIME("reportRootProcessingTime", false);
 
     private final String name;
     private final boolean defaultValue;
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.processor.internal.aggregateddeps;
+
+import static dagger.internal.codegen.extension.DaggerStreams.toImmutableSet;
+
+import com.google.common.collect.ImmutableSet;
+import dagger.hilt.processor.internal.uninstallmodules.AggregatedUninstallModulesMetadata;
+import java.util.HashMap;
+import java.util.Map;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * An index of aggregated dependencies that is shared by all of the roots processed in a round.
+ *
+ * <p>Roots typically share most of their aggregated dependencies, e.g. every test root that gets
+ * its own components depends on the same production modules. The index parses each aggregated
+ * element at most once and computes the uninstalled modules once per distinct set of
+ * {@code @UninstallModules}, rather than repeating that work for every root.
+ *
+ * <p>The index holds elements, so it must not be reused across rounds.
+ */
+public final class AggregatedDepsIndex {
+  public static AggregatedDepsIndex create(Elements elements) {
+    return new AggregatedDepsIndex(elements);
+  }
+
+  private final Elements elements;
+  private final Map<TypeElement, AggregatedDepsMetadata> metadataByElement = new HashMap<>();
+  private final Map<ImmutableSet<AggregatedUninstallModulesMetadata>, ImmutableSet<TypeElement>>
+      uninstalledModules = new HashMap<>();
+
+  private AggregatedDepsIndex(Elements elements) {
+    this.elements = elements;
+  }
+
+  Elements elements() {
+    return elements;
+  }
+
+  /** Returns the metadata for each aggregated element. */
+  public ImmutableSet<AggregatedDepsMetadata> metadata(
+      ImmutableSet<TypeElement> aggregatedElements) {
+    return aggregatedElements.stream()
+        .map(
+            aggregatedElement ->
+                metadataByElement.computeIfAbsent(
+                    aggregatedElement, element -> AggregatedDepsMetadata.create(element, elements)))
+        .collect(toImmutableSet());
+  }
+
+  /** Returns the modules uninstalled by the given {@code @UninstallModules} metadata. */
+  ImmutableSet<TypeElement> uninstalledModules(
+      ImmutableSet<AggregatedUninstallModulesMetadata> aggregatedUninstallModulesMetadata) {
+    return uninstalledModules.computeIfAbsent(
+        aggregatedUninstallModulesMetadata,
+        metadatas ->
+            metadatas.stream()
+                .flatMap(metadata -> metadata.uninstallModuleElements().stream())
+                // @AggregatedUninstallModules always references the user module, so convert to
+                // the generated public wrapper if needed.
+                // TODO(bcorso): Consider converting this to the public module in the processor.
+                .map(module -> PkgPrivateMetadata.publicModule(module, elements))
+                .collect(toImmutableSet()));
+  }
+}
@@ -106,7 +106,7 @@ public abstract class AggregatedDepsMetadata {
             : null);
   }
 
-  private static AggregatedDepsMetadata create(TypeElement element, Elements elements) {
+  static AggregatedDepsMetadata create(TypeElement element, Elements elements) {
     AnnotationMirror annotationMirror =
         Processors.getAnnotationMirror(element, ClassNames.AGGREGATED_DEPS);
 
@@ -57,23 +57,20 @@ public abstract class ComponentDependencies {
     abstract ComponentDependencies build();
   }
 
-  /** Returns the component dependencies for the given metadata. */
+  /**
+   * Returns the component dependencies for the given metadata, reusing the work shared with other
+   * roots from the {@code index}.
+   */
   public static ComponentDependencies from(
       ImmutableSet<ComponentDescriptor> descriptors,
       ImmutableSet<AggregatedDepsMetadata> aggregatedDepsMetadata,
       ImmutableSet<AggregatedUninstallModulesMetadata> aggregatedUninstallModulesMetadata,
       ImmutableSet<AggregatedEarlyEntryPointMetadata> aggregatedEarlyEntryPointMetadata,
-      Elements elements) {
+      AggregatedDepsIndex index) {
+    Elements elements = index.elements();
     ImmutableSet<TypeElement> uninstalledModules =
         ImmutableSet.<TypeElement>builder()
-            .addAll(
-                aggregatedUninstallModulesMetadata.stream()
-                    .flatMap(metadata -> metadata.uninstallModuleElements().stream())
-                    // @AggregatedUninstallModules always references the user module, so convert to
-                    // the generated public wrapper if needed.
-                    // TODO(bcorso): Consider converting this to the public module in the processor.
-                    .map(module -> PkgPrivateMetadata.publicModule(module, elements))
-                    .collect(toImmutableSet()))
+            .addAll(index.uninstalledModules(aggregatedUninstallModulesMetadata))
             .addAll(
                 aggregatedDepsMetadata.stream()
                     .flatMap(metadata -> metadata.replacedDependencies().stream())
@@ -18,6 +18,8 @@ package dagger.hilt.processor.internal.root;
 
 import static com.google.auto.common.MoreElements.asType;
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static dagger.hilt.processor.internal.HiltCompilerOptions.isRootProcessingTimeReportEnabled;
+import static dagger.hilt.processor.internal.HiltCompilerOptions.isStartupProfileGenerationEnabled;
 import static dagger.hilt.processor.internal.HiltCompilerOptions.useAggregatingRootProcessor;
 import static dagger.internal.codegen.extension.DaggerStreams.toImmutableList;
 import static dagger.internal.codegen.extension.DaggerStreams.toImmutableSet;
@@ -25,6 +27,7 @@ import static javax.lang.model.element.Modifier.PUBLIC;
 import static net.ltgt.gradle.incap.IncrementalAnnotationProcessorType.ISOLATING;
 
 import com.google.auto.service.AutoService;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.squareup.javapoet.ClassName;
@@ -36,7 +39,7 @@ import dagger.hilt.processor.internal.ComponentDescriptor;
 import dagger.hilt.processor.internal.ComponentNames;
 import dagger.hilt.processor.internal.ProcessorErrors;
 import dagger.hilt.processor.internal.Processors;
-import dagger.hilt.processor.internal.aggregateddeps.AggregatedDepsMetadata;
+import dagger.hilt.processor.internal.aggregateddeps.AggregatedDepsIndex;
 import dagger.hilt.processor.internal.aggregateddeps.ComponentDependencies;
 import dagger.hilt.processor.internal.aliasof.AliasOfPropagatedDataMetadata;
 import dagger.hilt.processor.internal.aliasof.AliasOfs;
@@ -47,10 +50,12 @@ import dagger.hilt.processor.internal.uninstallmodules.AggregatedUninstallModule
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
 import net.ltgt.gradle.incap.IncrementalAnnotationProcessor;
 
 /** Processor that outputs dagger components based on transitive build deps. */
@@ -80,13 +85,19 @@ public final class ComponentTreeDepsProcessor extends BaseProcessor {
             .map(element -> ComponentTreeDepsMetadata.from(element, getElementUtils()))
             .collect(toImmutableSet());
 
+    // The index is shared by all roots processed in this round so that the aggregated deps they
+    // have in common are only processed once.
+    AggregatedDepsIndex aggregatedDepsIndex = AggregatedDepsIndex.create(getElementUtils());
     for (ComponentTreeDepsMetadata metadata : componentTreeDepsToProcess) {
-      processComponentTreeDeps(metadata);
+      processComponentTreeDeps(metadata, aggregatedDepsIndex);
     }
   }
 
-  private void processComponentTreeDeps(ComponentTreeDepsMetadata metadata) throws IOException {
+  private void processComponentTreeDeps(
+      ComponentTreeDepsMetadata metadata, AggregatedDepsIndex aggregatedDepsIndex)
+      throws IOException {
     TypeElement metadataElement = getElementUtils().getTypeElement(metadata.name().canonicalName());
+    Stopwatch stopwatch = Stopwatch.createStarted();
     try {
       // We choose a name for the generated components/wrapper based off of the originating element
       // annotated with @ComponentTreeDeps. This is close to but isn't necessarily a "real" name of
@@ -119,12 +130,12 @@ public final class ComponentTreeDepsProcessor extends BaseProcessor {
       ComponentDependencies deps =
           ComponentDependencies.from(
               componentDescriptors,
-              AggregatedDepsMetadata.from(metadata.aggregatedDeps(), getElementUtils()),
+              aggregatedDepsIndex.metadata(metadata.aggregatedDeps()),
               AggregatedUninstallModulesMetadata.from(
                   metadata.aggregatedUninstallModulesDeps(), getElementUtils()),
               AggregatedEarlyEntryPointMetadata.from(
                   metadata.aggregatedEarlyEntryPointDeps(), getElementUtils()),
-              getElementUtils());
+              aggregatedDepsIndex);
       AliasOfs aliasOfs =
           AliasOfs.create(
               AliasOfPropagatedDataMetadata.from(metadata.aliasOfDeps(), getElementUtils()),
@@ -148,9 +159,23 @@ public final class ComponentTreeDepsProcessor extends BaseProcessor {
           generateTestComponentData(metadataElement, rootMetadatas, componentNames);
         } else {
           generateApplication(root.element());
+          if (isStartupProfileGenerationEnabled(getProcessingEnv())) {
+            StartupProfileGenerator.generate(
+                rootMetadata, componentNames, metadataElement, getProcessingEnv());
+          }
         }
 
       setProcessingState(metadata, root);
+      if (isRootProcessingTimeReportEnabled(getProcessingEnv())) {
+        getMessager()
+            .printMessage(
+                Diagnostic.Kind.NOTE,
+                String.format(
+                    "Hilt processed %s in %d ms",
+                    roots.stream().map(Root::classname).collect(toImmutableList()),
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS)),
+                metadataElement);
+      }
     } catch (Exception e) {
       processed.add(metadata.name());
       throw e;
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.processor.internal.root;
+
+import static com.google.auto.common.MoreTypes.asTypeElement;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
+import dagger.hilt.processor.internal.ClassNames;
+import dagger.hilt.processor.internal.ComponentDescriptor;
+import dagger.hilt.processor.internal.ComponentNames;
+import dagger.hilt.processor.internal.Processors;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a human-readable startup profile for the classes Hilt generates on the cold-start path
+ * of an application.
+ *
+ * <p>The profile uses the ART baseline profile format and covers the generated application base
+ * class, the components from the {@code SingletonComponent} down to the {@code ActivityComponent},
+ * and the entry points and modules installed in those components. For the {@code
+ * @AndroidEntryPoint} classes injected by those components, it also covers their generated base
+ * classes and the factories and members injectors Dagger generates for them and for the {@code
+ * @Inject}-constructed types they depend on.
+ *
+ * <p>The profile is written to the generated sources output rather than the class output so that
+ * it is not packaged into the app; builds are expected to merge it into the app's profile.
+ */
+final class StartupProfileGenerator {
+  private static final ClassName LAZY = ClassName.get("dagger", "Lazy");
+
+  static void generate(
+      RootMetadata metadata,
+      ComponentNames componentNames,
+      TypeElement originatingElement,
+      ProcessingEnvironment env)
+      throws IOException {
+    new StartupProfileGenerator(metadata, componentNames, originatingElement, env).generate();
+  }
+
+  private final RootMetadata metadata;
+  private final ComponentNames componentNames;
+  private final TypeElement originatingElement;
+  private final ProcessingEnvironment env;
+  private final Set<String> rules = new LinkedHashSet<>();
+  private final Set<TypeElement> visitedTypes = new HashSet<>();
+
+  private StartupProfileGenerator(
+      RootMetadata metadata,
+      ComponentNames componentNames,
+      TypeElement originatingElement,
+      ProcessingEnvironment env) {
+    this.metadata = metadata;
+    this.componentNames = componentNames;
+    this.originatingElement = originatingElement;
+    this.env = env;
+  }
+
+  private void generate() throws IOException {
+    Root root = metadata.root();
+    ClassName rootName = root.originatingRootClassname();
+    ClassName daggerComponent =
+        Processors.prepend(
+            Processors.getEnclosedClassName(
+                componentNames.generatedComponent(rootName, ClassNames.SINGLETON_COMPONENT)),
+            "Dagger");
+    addClass(Processors.prepend(Processors.getEnclosedClassName(root.classname()), "Hilt_"));
+    addClass(componentNames.generatedComponentsWrapper(rootName));
+    addClass(daggerComponent);
+    addClass(daggerComponent.nestedClass("Builder"));
+    addClassPrefix(daggerComponent.nestedClass("SwitchingProvider"));
+    addClassPrefix(daggerComponent.nestedClass("Shard"));
+
+    for (ComponentDescriptor descriptor : startupComponents()) {
+      // Only the classes of the startup components are listed, since the wrapper and the Dagger
+      // component also nest the classes of every other component in the tree.
+      ClassName component = componentNames.generatedComponent(rootName, descriptor.component());
+      addClass(component);
+      addNestedClasses(component);
+      if (!descriptor.isRoot()) {
+        ClassName implementation = daggerComponent.nestedClass(component.simpleName() + "Impl");
+        addClass(implementation);
+        addNestedClasses(implementation);
+        addClass(daggerComponent.nestedClass(component.simpleName() + "Builder"));
+      }
+
+      for (TypeElement entryPoint : metadata.deps().entryPoints().get(descriptor.component())) {
+        addClass(ClassName.get(entryPoint));
+        for (TypeElement injectedType : injectedTypes(entryPoint)) {
+          addClass(
+              Processors.prepend(Processors.getEnclosedClassName(injectedType), "Hilt_"));
+          addMembersInjectionClasses(injectedType);
+        }
+      }
+      for (TypeElement module : metadata.modules(descriptor.component())) {
+        addClass(ClassName.get(module));
+        // Dagger names the factories of a module's bindings after the module, e.g.
+        // FooModule_ProvideBarFactory.
+        addClassPrefix(Processors.append(Processors.getEnclosedClassName(module), "_"));
+      }
+    }
+
+    ClassName profileName =
+        Processors.append(Processors.getEnclosedClassName(root.classname()), "_HiltStartupProfile");
+    FileObject file =
+        env.getFiler()
+            .createResource(
+                StandardLocation.SOURCE_OUTPUT,
+                profileName.packageName(),
+                profileName.simpleName() + ".txt",
+                originatingElement);
+    try (Writer writer = file.openWriter()) {
+      writer.write("# Startup profile generated by Hilt for " + root.classname() + "\n");
+      for (String rule : rules) {
+        writer.write(rule);
+        writer.write("\n");
+      }
+    }
+  }
+
+  /**
+   * Returns the {@code ActivityComponent} and its ancestors, or only the root component if the tree
+   * has no {@code ActivityComponent}.
+   */
+  private ImmutableList<ComponentDescriptor> startupComponents() {
+    ComponentTree tree = metadata.componentTree();
+    Optional<ComponentDescriptor> activityComponent =
+        tree.getComponentDescriptors().stream()
+            .filter(descriptor -> descriptor.component().equals(ClassNames.ACTIVITY_COMPONENT))
+            .findFirst();
+    if (!activityComponent.isPresent()) {
+      return ImmutableList.of(tree.root());
+    }
+    ImmutableList.Builder<ComponentDescriptor> components = ImmutableList.builder();
+    for (Optional<ComponentDescriptor> descriptor = activityComponent;
+        descriptor.isPresent();
+        descriptor = descriptor.get().parent()) {
+      components.add(descriptor.get());
+    }
+    return components.build().reverse();
+  }
+
+  /**
+   * Returns the {@code @AndroidEntryPoint} classes injected by {@code entryPoint}, if it is a
+   * generated injector, e.g. {@code FooActivity} for {@code
+   * FooActivity_GeneratedInjector#injectFooActivity(FooActivity)}.
+   */
+  private static ImmutableList<TypeElement> injectedTypes(TypeElement entryPoint) {
+    if (!Processors.hasAnnotation(entryPoint, ClassNames.GENERATED_ENTRY_POINT)) {
+      return ImmutableList.of();
+    }
+    ImmutableList.Builder<TypeElement> injectedTypes = ImmutableList.builder();
+    for (ExecutableElement method : ElementFilter.methodsIn(entryPoint.getEnclosedElements())) {
+      for (VariableElement parameter : method.getParameters()) {
+        if (parameter.asType().getKind() == TypeKind.DECLARED) {
+          injectedTypes.add(asTypeElement(parameter.asType()));
+        }
+      }
+    }
+    return injectedTypes.build();
+  }
+
+  /**
+   * Adds the {@code _Factory} of {@code type} if it has an {@code @Inject} constructor, along with
+   * the classes used to inject it and its dependencies.
+   *
+   * <p>Dependencies provided by modules are not followed; their factories are already covered by
+   * the rules of the modules.
+   */
+  private void addInjectionClasses(TypeElement type) {
+    if (!visitedTypes.add(type)) {
+      return;
+    }
+    Optional<ExecutableElement> injectConstructor =
+        ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+            .filter(constructor -> Processors.hasAnnotation(constructor, ClassNames.INJECT))
+            .findFirst();
+    if (!injectConstructor.isPresent()) {
+      return;
+    }
+    addClass(Processors.append(Processors.getEnclosedClassName(type), "_Factory"));
+    addDependencies(injectConstructor.get().getParameters());
+    addMembersInjectionClasses(type);
+  }
+
+  /**
+   * Adds the {@code _MembersInjector} of {@code type} and of each of its superclasses that has
+   * {@code @Inject} fields or methods, along with the classes used to inject their dependencies.
+   */
+  private void addMembersInjectionClasses(TypeElement type) {
+    for (TypeElement current = type;
+        current != null;
+        current =
+            current.getSuperclass().getKind() == TypeKind.DECLARED
+                ? asTypeElement(current.getSuperclass())
+                : null) {
+      boolean hasInjectedMembers = false;
+      for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+        if (Processors.hasAnnotation(field, ClassNames.INJECT)) {
+          hasInjectedMembers = true;
+          addDependency(field.asType());
+        }
+      }
+      for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+        if (Processors.hasAnnotation(method, ClassNames.INJECT)) {
+          hasInjectedMembers = true;
+          addDependencies(method.getParameters());
+        }
+      }
+      if (hasInjectedMembers) {
+        addClass(Processors.append(Processors.getEnclosedClassName(current), "_MembersInjector"));
+      }
+    }
+  }
+
+  private void addDependencies(List<? extends VariableElement> parameters) {
+    for (VariableElement parameter : parameters) {
+      addDependency(parameter.asType());
+    }
+  }
+
+  private void addDependency(TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return;
+    }
+    DeclaredType declaredType = (DeclaredType) type;
+    ClassName className = ClassName.get(asTypeElement(declaredType));
+    if ((className.equals(ClassNames.PROVIDER) || className.equals(LAZY))
+        && declaredType.getTypeArguments().size() == 1) {
+      addDependency(declaredType.getTypeArguments().get(0));
+    } else {
+      addInjectionClasses(asTypeElement(declaredType));
+    }
+  }
+
+  private void addClass(ClassName className) {
+    addRules("L" + className.reflectionName().replace('.', '/') + ";");
+  }
+
+  /** Adds the classes whose binary name starts with the name of {@code className}. */
+  private void addClassPrefix(ClassName className) {
+    addRules("L" + className.reflectionName().replace('.', '/') + "*;");
+  }
+
+  /** Adds the classes nested in {@code className}. */
+  private void addNestedClasses(ClassName className) {
+    addRules("L" + className.reflectionName().replace('.', '/') + "$*;");
+  }
+
+  private void addRules(String descriptor) {
+    // Preloads the class and marks all of its methods as hot and used during startup.
+    rules.add(descriptor);
+    rules.add("HSPL" + descriptor + "->**(**)**");
+  }
+}
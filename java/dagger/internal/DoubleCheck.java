@@ -30,6 +30,8 @@ public final class DoubleCheck<T> implements Provider<T>, Lazy<T> {
 
   private volatile Provider<T> provider;
   private volatile Object instance = UNINITIALIZED;
+  // Not volatile: InstanceFactory is immutable, so racing threads at worst each create one.
+  private Provider<Lazy<T>> providerOfLazy;
 
   private DoubleCheck(Provider<T> provider) {
     assert provider != null;
@@ -55,6 +57,19 @@ public final class DoubleCheck<T> implements Provider<T>, Lazy<T> {
     return (T) result;
   }
 
+  /**
+   * Returns a {@link Provider} that always returns this {@link Lazy}, so that every injection of
+   * {@code Provider<Lazy<T>>} for a scoped binding can share one instance.
+   */
+  Provider<Lazy<T>> providerOfLazy() {
+    Provider<Lazy<T>> result = providerOfLazy;
+    if (result == null) {
+      result = InstanceFactory.<Lazy<T>>create(this);
+      providerOfLazy = result;
+    }
+    return result;
+  }
+
   /**
    * Checks to see if creating the new instance has resulted in a recursive call. If it has, and the
    * new instance is the same as the current instance, return the instance. However, if the new
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Provider;
+
+/**
+ * Gets providers concurrently on an {@link Executor} to implement the method generated for a
+ * component annotated with {@link dagger.WarmUpScopedBindings}.
+ */
+public final class ParallelWarmUp {
+  /**
+   * Gets each of the {@code providers} on the {@code executor} in waves, and returns once they have
+   * all been gotten.
+   *
+   * <p>Wave {@code i} consists of the providers from index {@code waveStarts[i]} (inclusive) up to
+   * the start of the next wave (exclusive). The providers in a wave are gotten concurrently, and a
+   * wave is only started once every provider in the previous waves has been gotten. If getting a
+   * provider throws, the remaining waves are not started and the first exception is rethrown.
+   */
+  public static void warmUp(Executor executor, Provider<?>[] providers, int[] waveStarts)
+      throws InterruptedException {
+    checkNotNull(executor);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    for (int wave = 0; wave < waveStarts.length; wave++) {
+      int waveEnd = wave + 1 < waveStarts.length ? waveStarts[wave + 1] : providers.length;
+      CountDownLatch remaining = new CountDownLatch(waveEnd - waveStarts[wave]);
+      for (int i = waveStarts[wave]; i < waveEnd; i++) {
+        executor.execute(new WarmUpTask(providers[i], remaining, failure));
+      }
+      remaining.await();
+      rethrowIfFailed(failure.get());
+    }
+  }
+
+  private static void rethrowIfFailed(Throwable failure) {
+    if (failure == null) {
+      return;
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    throw new RuntimeException(failure);
+  }
+
+  private static final class WarmUpTask implements Runnable {
+    private final Provider<?> provider;
+    private final CountDownLatch remaining;
+    private final AtomicReference<Throwable> failure;
+
+    WarmUpTask(
+        Provider<?> provider, CountDownLatch remaining, AtomicReference<Throwable> failure) {
+      this.provider = provider;
+      this.remaining = remaining;
+      this.failure = failure;
+    }
+
+    @Override
+    public void run() {
+      try {
+        provider.get();
+      } catch (Throwable t) {
+        failure.compareAndSet(null, t);
+      } finally {
+        remaining.countDown();
+      }
+    }
+  }
+
+  private ParallelWarmUp() {}
+}
@@ -46,9 +46,16 @@ public final class ProviderOfLazy<T> implements Provider<Lazy<T>> {
    * Creates a new {@link Provider Provider&lt;Lazy&lt;T&gt;&gt;} that decorates the given
    * {@link Provider}.
    *
+   * <p>If {@code provider} is already a {@link DoubleCheck}, every {@link Lazy} it would return is
+   * the {@link DoubleCheck} itself, so a shared instance is returned instead of a new one.
+   *
    * @see #get()
    */
   public static <T> Provider<Lazy<T>> create(Provider<T> provider) {
-    return new ProviderOfLazy<T>(checkNotNull(provider));
+    checkNotNull(provider);
+    if (provider instanceof DoubleCheck) {
+      return ((DoubleCheck<T>) provider).providerOfLazy();
+    }
+    return new ProviderOfLazy<T>(provider);
   }
 }
@@ -27,6 +27,7 @@ import com.google.common.graph.SuccessorsFunction;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -72,37 +73,74 @@ public final class TarjanSCCs {
       return ImmutableSet.copyOf(stronglyConnectedComponents);
     }
 
-    private void stronglyConnect(NodeT node) {
+    /**
+     * Runs Tarjan's algorithm from {@code root}.
+     *
+     * <p>This is an iterative version of the recursive pseudo code, using an explicit call stack of
+     * successor iterators, so that long dependency chains in large graphs don't overflow the thread
+     * stack. It visits nodes and successors in exactly the same order as the recursive version.
+     */
+    private void stronglyConnect(NodeT root) {
+      Deque<Visit<NodeT>> callStack = new ArrayDeque<>();
+      callStack.push(startVisit(root));
+      while (!callStack.isEmpty()) {
+        Visit<NodeT> visit = callStack.peek();
+        NodeT node = visit.node;
+        if (visit.successors.hasNext()) {
+          NodeT successor = visit.successors.next();
+          if (!indexes.containsKey(successor)) {
+            // Successor has not been processed, so "recurse" into it.
+            callStack.push(startVisit(successor));
+          } else if (onStack.contains(successor)) {
+            // Successor is on the stack and hence in the current SCC.
+            lowLinks.put(node, min(lowLinks.get(node), indexes.get(successor)));
+          } else {
+            // Successor is not on the stack and hence in an already processed SCC, so ignore.
+          }
+          continue;
+        }
+
+        // All successors have been processed, so "return" from this node.
+        callStack.pop();
+
+        // If node is the root of the SCC, pop the stack until reaching the root to get all SCC
+        // nodes.
+        if (lowLinks.get(node).equals(indexes.get(node))) {
+          ImmutableSet.Builder<NodeT> scc = ImmutableSet.builder();
+          NodeT currNode;
+          do {
+            currNode = stack.pop();
+            onStack.remove(currNode);
+            scc.add(currNode);
+          } while (!node.equals(currNode));
+          stronglyConnectedComponents.add(scc.build());
+        }
+
+        if (!callStack.isEmpty()) {
+          NodeT caller = callStack.peek().node;
+          lowLinks.put(caller, min(lowLinks.get(caller), lowLinks.get(node)));
+        }
+      }
+    }
+
+    private Visit<NodeT> startVisit(NodeT node) {
       // Set the index and lowLink for node to the smallest unused index and add it to the stack
       lowLinks.put(node, indexes.size());
       indexes.put(node, indexes.size());
       stack.push(node);
       onStack.add(node);
+      return new Visit<>(node, successorsFunction.successors(node).iterator());
+    }
+  }
 
-      for (NodeT successor : successorsFunction.successors(node)) {
-        if (!indexes.containsKey(successor)) {
-          // Successor has not been processed.
-          stronglyConnect(successor);
-          lowLinks.put(node, min(lowLinks.get(node), lowLinks.get(successor)));
-        } else if (onStack.contains(successor)) {
-          // Successor is on the stack and hence in the current SCC.
-          lowLinks.put(node, min(lowLinks.get(node), indexes.get(successor)));
-        } else {
-          // Successor is not on the stack and hence in an already processed SCC, so ignore.
-        }
-      }
+  /** A node whose successors are being visited, along with the remaining successors to visit. */
+  private static final class Visit<NodeT> {
+    final NodeT node;
+    final Iterator<? extends NodeT> successors;
 
-      // If node is the root of the SCC, pop the stack until reaching the root to get all SCC nodes.
-      if (lowLinks.get(node).equals(indexes.get(node))) {
-        ImmutableSet.Builder<NodeT> scc = ImmutableSet.builder();
-        NodeT currNode;
-        do {
-          currNode = stack.pop();
-          onStack.remove(currNode);
-          scc.add(currNode);
-        } while (!node.equals(currNode));
-        stronglyConnectedComponents.add(scc.build());
-      }
+    Visit(NodeT node, Iterator<? extends NodeT> successors) {
+      this.node = node;
+      this.successors = successors;
     }
   }
 
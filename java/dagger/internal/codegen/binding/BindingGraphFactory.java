@@ -36,6 +36,7 @@ import static java.util.function.Predicate.isEqual;
 import static javax.lang.model.util.ElementFilter.methodsIn;
 
 import com.google.auto.common.MoreTypes;
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -43,6 +44,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Table;
 import dagger.MembersInjector;
 import dagger.Reusable;
 import dagger.internal.codegen.base.ClearableCache;
@@ -87,6 +89,9 @@ public final class BindingGraphFactory implements ClearableCache {
   private final ModuleDescriptor.Factory moduleDescriptorFactory;
   private final BindingGraphConverter bindingGraphConverter;
   private final Map<Key, ImmutableSet<Key>> keysMatchingRequestCache = new HashMap<>();
+  // Indexed by the component and whether the implicit production modules are installed in it.
+  private final Table<ComponentDescriptor, Boolean, ComponentDeclarations>
+      componentDeclarationsCache = HashBasedTable.create();
   private final CompilerOptions compilerOptions;
 
   @Inject
@@ -124,6 +129,84 @@ public final class BindingGraphFactory implements ClearableCache {
       Optional<Resolver> parentResolver,
       ComponentDescriptor componentDescriptor,
       boolean createFullBindingGraph) {
+    final Resolver requestResolver =
+        new Resolver(
+            parentResolver,
+            componentDescriptor,
+            componentDeclarations(componentDescriptor, parentResolver));
+
+    componentDescriptor.entryPointMethods().stream()
+        .map(method -> method.dependencyRequest().get())
+        .forEach(
+            entryPoint -> {
+              if (entryPoint.kind().equals(MEMBERS_INJECTION)) {
+                requestResolver.resolveMembersInjection(entryPoint.key());
+              } else {
+                requestResolver.resolve(entryPoint.key());
+              }
+            });
+
+    if (createFullBindingGraph) {
+      // Resolve the keys for all bindings in all modules, stripping any multibinding contribution
+      // identifier so that the multibinding itself is resolved.
+      modules(componentDescriptor, parentResolver).stream()
+          .flatMap(module -> module.allBindingKeys().stream())
+          .map(
+              key ->
+                  keyFactory.intern(
+                      key.toBuilder().multibindingContributionIdentifier(Optional.empty()).build()))
+          .forEach(requestResolver::resolve);
+    }
+
+    // Resolve all bindings for subcomponents, creating subgraphs for all subcomponents that have
+    // been detected during binding resolution. If a binding for a subcomponent is never resolved,
+    // no BindingGraph will be created for it and no implementation will be generated. This is
+    // done in a queue since resolving one subcomponent might resolve a key for a subcomponent
+    // from a parent graph. This is done until no more new subcomponents are resolved.
+    Set<ComponentDescriptor> resolvedSubcomponents = new HashSet<>();
+    ImmutableList.Builder<LegacyBindingGraph> subgraphs = ImmutableList.builder();
+    for (ComponentDescriptor subcomponent :
+        Iterables.consumingIterable(requestResolver.subcomponentsToResolve)) {
+      if (resolvedSubcomponents.add(subcomponent)) {
+        subgraphs.add(
+            createLegacyBindingGraph(
+                Optional.of(requestResolver), subcomponent, createFullBindingGraph));
+      }
+    }
+
+    return new LegacyBindingGraph(
+        componentDescriptor,
+        ImmutableMap.copyOf(requestResolver.getResolvedContributionBindings()),
+        ImmutableMap.copyOf(requestResolver.getResolvedMembersInjectionBindings()),
+        ImmutableList.copyOf(subgraphs.build()));
+  }
+
+  /**
+   * Returns the binding declarations installed in {@code componentDescriptor}, indexed by key.
+   *
+   * <p>The declarations depend only on the component and on whether the implicit production
+   * modules are installed in it, so they are cached for the processing round. This lets the full
+   * and reachable binding graphs of a component, and every graph that contains a given
+   * subcomponent, share the same indices instead of re-collecting and re-indexing the bindings of
+   * all transitively included modules.
+   */
+  private ComponentDeclarations componentDeclarations(
+      ComponentDescriptor componentDescriptor, Optional<Resolver> parentResolver) {
+    boolean includeImplicitProductionModules =
+        shouldIncludeImplicitProductionModules(componentDescriptor, parentResolver);
+    ComponentDeclarations declarations =
+        componentDeclarationsCache.get(componentDescriptor, includeImplicitProductionModules);
+    if (declarations == null) {
+      declarations =
+          createComponentDeclarations(componentDescriptor, includeImplicitProductionModules);
+      componentDeclarationsCache.put(
+          componentDescriptor, includeImplicitProductionModules, declarations);
+    }
+    return declarations;
+  }
+
+  private ComponentDeclarations createComponentDeclarations(
+      ComponentDescriptor componentDescriptor, boolean includeImplicitProductionModules) {
     ImmutableSet.Builder<ContributionBinding> explicitBindingsBuilder = ImmutableSet.builder();
     ImmutableSet.Builder<DelegateDeclaration> delegatesBuilder = ImmutableSet.builder();
     ImmutableSet.Builder<OptionalBindingDeclaration> optionalsBuilder = ImmutableSet.builder();
@@ -190,7 +273,8 @@ public final class BindingGraphFactory implements ClearableCache {
     ImmutableSet.Builder<SubcomponentDeclaration> subcomponentDeclarations = ImmutableSet.builder();
 
     // Collect transitive module bindings and multibinding declarations.
-    for (ModuleDescriptor moduleDescriptor : modules(componentDescriptor, parentResolver)) {
+    for (ModuleDescriptor moduleDescriptor :
+        modules(componentDescriptor, includeImplicitProductionModules)) {
       explicitBindingsBuilder.addAll(moduleDescriptor.bindings());
       multibindingDeclarations.addAll(moduleDescriptor.multibindingDeclarations());
       subcomponentDeclarations.addAll(moduleDescriptor.subcomponentDeclarations());
@@ -198,57 +282,12 @@ public final class BindingGraphFactory implements ClearableCache {
       optionalsBuilder.addAll(moduleDescriptor.optionalDeclarations());
     }
 
-    final Resolver requestResolver =
-        new Resolver(
-            parentResolver,
-            componentDescriptor,
-            indexBindingDeclarationsByKey(explicitBindingsBuilder.build()),
-            indexBindingDeclarationsByKey(multibindingDeclarations.build()),
-            indexBindingDeclarationsByKey(subcomponentDeclarations.build()),
-            indexBindingDeclarationsByKey(delegatesBuilder.build()),
-            indexBindingDeclarationsByKey(optionalsBuilder.build()));
-
-    componentDescriptor.entryPointMethods().stream()
-        .map(method -> method.dependencyRequest().get())
-        .forEach(
-            entryPoint -> {
-              if (entryPoint.kind().equals(MEMBERS_INJECTION)) {
-                requestResolver.resolveMembersInjection(entryPoint.key());
-              } else {
-                requestResolver.resolve(entryPoint.key());
-              }
-            });
-
-    if (createFullBindingGraph) {
-      // Resolve the keys for all bindings in all modules, stripping any multibinding contribution
-      // identifier so that the multibinding itself is resolved.
-      modules(componentDescriptor, parentResolver).stream()
-          .flatMap(module -> module.allBindingKeys().stream())
-          .map(key -> key.toBuilder().multibindingContributionIdentifier(Optional.empty()).build())
-          .forEach(requestResolver::resolve);
-    }
-
-    // Resolve all bindings for subcomponents, creating subgraphs for all subcomponents that have
-    // been detected during binding resolution. If a binding for a subcomponent is never resolved,
-    // no BindingGraph will be created for it and no implementation will be generated. This is
-    // done in a queue since resolving one subcomponent might resolve a key for a subcomponent
-    // from a parent graph. This is done until no more new subcomponents are resolved.
-    Set<ComponentDescriptor> resolvedSubcomponents = new HashSet<>();
-    ImmutableList.Builder<LegacyBindingGraph> subgraphs = ImmutableList.builder();
-    for (ComponentDescriptor subcomponent :
-        Iterables.consumingIterable(requestResolver.subcomponentsToResolve)) {
-      if (resolvedSubcomponents.add(subcomponent)) {
-        subgraphs.add(
-            createLegacyBindingGraph(
-                Optional.of(requestResolver), subcomponent, createFullBindingGraph));
-      }
-    }
-
-    return new LegacyBindingGraph(
-        componentDescriptor,
-        ImmutableMap.copyOf(requestResolver.getResolvedContributionBindings()),
-        ImmutableMap.copyOf(requestResolver.getResolvedMembersInjectionBindings()),
-        ImmutableList.copyOf(subgraphs.build()));
+    return new ComponentDeclarations(
+        indexBindingDeclarationsByKey(explicitBindingsBuilder.build()),
+        indexBindingDeclarationsByKey(multibindingDeclarations.build()),
+        indexBindingDeclarationsByKey(subcomponentDeclarations.build()),
+        indexBindingDeclarationsByKey(delegatesBuilder.build()),
+        indexBindingDeclarationsByKey(optionalsBuilder.build()));
   }
 
   /**
@@ -259,7 +298,14 @@ public final class BindingGraphFactory implements ClearableCache {
    */
   private ImmutableSet<ModuleDescriptor> modules(
       ComponentDescriptor componentDescriptor, Optional<Resolver> parentResolver) {
-    return shouldIncludeImplicitProductionModules(componentDescriptor, parentResolver)
+    return modules(
+        componentDescriptor,
+        shouldIncludeImplicitProductionModules(componentDescriptor, parentResolver));
+  }
+
+  private ImmutableSet<ModuleDescriptor> modules(
+      ComponentDescriptor componentDescriptor, boolean includeImplicitProductionModules) {
+    return includeImplicitProductionModules
         ? new ImmutableSet.Builder<ModuleDescriptor>()
             .addAll(componentDescriptor.modules())
             .add(descriptorForMonitoringModule(componentDescriptor.typeElement()))
@@ -304,11 +350,11 @@ public final class BindingGraphFactory implements ClearableCache {
   @Override
   public void clearCache() {
     keysMatchingRequestCache.clear();
+    componentDeclarationsCache.clear();
   }
 
-  private final class Resolver {
-    final Optional<Resolver> parentResolver;
-    final ComponentDescriptor componentDescriptor;
+  /** The binding declarations installed in a component, indexed by key. */
+  private static final class ComponentDeclarations {
     final ImmutableSetMultimap<Key, ContributionBinding> explicitBindings;
     final ImmutableSet<ContributionBinding> explicitBindingsSet;
     final ImmutableSetMultimap<Key, ContributionBinding> explicitMultibindings;
@@ -317,23 +363,13 @@ public final class BindingGraphFactory implements ClearableCache {
     final ImmutableSetMultimap<Key, DelegateDeclaration> delegateDeclarations;
     final ImmutableSetMultimap<Key, OptionalBindingDeclaration> optionalBindingDeclarations;
     final ImmutableSetMultimap<Key, DelegateDeclaration> delegateMultibindingDeclarations;
-    final Map<Key, ResolvedBindings> resolvedContributionBindings = new LinkedHashMap<>();
-    final Map<Key, ResolvedBindings> resolvedMembersInjectionBindings = new LinkedHashMap<>();
-    final Deque<Key> cycleStack = new ArrayDeque<>();
-    final Map<Key, Boolean> keyDependsOnLocalBindingsCache = new HashMap<>();
-    final Map<Binding, Boolean> bindingDependsOnLocalBindingsCache = new HashMap<>();
-    final Queue<ComponentDescriptor> subcomponentsToResolve = new ArrayDeque<>();
 
-    Resolver(
-        Optional<Resolver> parentResolver,
-        ComponentDescriptor componentDescriptor,
+    ComponentDeclarations(
         ImmutableSetMultimap<Key, ContributionBinding> explicitBindings,
         ImmutableSetMultimap<Key, MultibindingDeclaration> multibindingDeclarations,
         ImmutableSetMultimap<Key, SubcomponentDeclaration> subcomponentDeclarations,
         ImmutableSetMultimap<Key, DelegateDeclaration> delegateDeclarations,
         ImmutableSetMultimap<Key, OptionalBindingDeclaration> optionalBindingDeclarations) {
-      this.parentResolver = parentResolver;
-      this.componentDescriptor = checkNotNull(componentDescriptor);
       this.explicitBindings = checkNotNull(explicitBindings);
       this.explicitBindingsSet = ImmutableSet.copyOf(explicitBindings.values());
       this.multibindingDeclarations = checkNotNull(multibindingDeclarations);
@@ -343,6 +379,41 @@ public final class BindingGraphFactory implements ClearableCache {
       this.explicitMultibindings = multibindingContributionsByMultibindingKey(explicitBindingsSet);
       this.delegateMultibindingDeclarations =
           multibindingContributionsByMultibindingKey(delegateDeclarations.values());
+    }
+  }
+
+  private final class Resolver {
+    final Optional<Resolver> parentResolver;
+    final ComponentDescriptor componentDescriptor;
+    final ImmutableSetMultimap<Key, ContributionBinding> explicitBindings;
+    final ImmutableSet<ContributionBinding> explicitBindingsSet;
+    final ImmutableSetMultimap<Key, ContributionBinding> explicitMultibindings;
+    final ImmutableSetMultimap<Key, MultibindingDeclaration> multibindingDeclarations;
+    final ImmutableSetMultimap<Key, SubcomponentDeclaration> subcomponentDeclarations;
+    final ImmutableSetMultimap<Key, DelegateDeclaration> delegateDeclarations;
+    final ImmutableSetMultimap<Key, OptionalBindingDeclaration> optionalBindingDeclarations;
+    final ImmutableSetMultimap<Key, DelegateDeclaration> delegateMultibindingDeclarations;
+    final Map<Key, ResolvedBindings> resolvedContributionBindings = new LinkedHashMap<>();
+    final Map<Key, ResolvedBindings> resolvedMembersInjectionBindings = new LinkedHashMap<>();
+    final Deque<Key> cycleStack = new ArrayDeque<>();
+    final Map<Key, Boolean> keyDependsOnLocalBindingsCache = new HashMap<>();
+    final Map<Binding, Boolean> bindingDependsOnLocalBindingsCache = new HashMap<>();
+    final Queue<ComponentDescriptor> subcomponentsToResolve = new ArrayDeque<>();
+
+    Resolver(
+        Optional<Resolver> parentResolver,
+        ComponentDescriptor componentDescriptor,
+        ComponentDeclarations declarations) {
+      this.parentResolver = parentResolver;
+      this.componentDescriptor = checkNotNull(componentDescriptor);
+      this.explicitBindings = declarations.explicitBindings;
+      this.explicitBindingsSet = declarations.explicitBindingsSet;
+      this.multibindingDeclarations = declarations.multibindingDeclarations;
+      this.subcomponentDeclarations = declarations.subcomponentDeclarations;
+      this.delegateDeclarations = declarations.delegateDeclarations;
+      this.optionalBindingDeclarations = declarations.optionalBindingDeclarations;
+      this.explicitMultibindings = declarations.explicitMultibindings;
+      this.delegateMultibindingDeclarations = declarations.delegateMultibindingDeclarations;
       subcomponentsToResolve.addAll(
           componentDescriptor.childComponentsDeclaredByFactoryMethods().values());
       subcomponentsToResolve.addAll(
@@ -38,6 +38,7 @@ import com.google.auto.common.MoreTypes;
 import com.google.common.collect.ImmutableSet;
 import dagger.Binds;
 import dagger.BindsOptionalOf;
+import dagger.internal.codegen.base.ClearableCache;
 import dagger.internal.codegen.base.ContributionType;
 import dagger.internal.codegen.base.FrameworkTypes;
 import dagger.internal.codegen.base.MapType;
@@ -57,6 +58,7 @@ import dagger.spi.model.DaggerAnnotation;
 import dagger.spi.model.Key;
 import dagger.spi.model.Key.MultibindingContributionIdentifier;
 import dagger.spi.model.RequestKind;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -64,6 +66,7 @@ import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.inject.Singleton;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
@@ -72,11 +75,21 @@ import javax.lang.model.type.ExecutableType;
 import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeMirror;
 
-/** A factory for {@link Key}s. */
-public final class KeyFactory {
+/**
+ * A factory for {@link Key}s.
+ *
+ * <p>Every key returned by this factory is interned for the duration of the processing round, so
+ * that equal keys are usually the same instance. {@link Key#equals(Object)} short-circuits on
+ * identity and {@link Key#hashCode()} is memoized per instance, so map and set lookups with
+ * interned keys avoid repeatedly walking the underlying {@link TypeMirror}s through {@link
+ * MoreTypes#equivalence()}.
+ */
+@Singleton
+public final class KeyFactory implements ClearableCache {
   private final DaggerTypes types;
   private final DaggerElements elements;
   private final InjectionAnnotations injectionAnnotations;
+  private final Map<Key, Key> internedKeys = new HashMap<>();
 
   @Inject
   KeyFactory(
@@ -86,6 +99,21 @@ public final class KeyFactory {
     this.injectionAnnotations = injectionAnnotations;
   }
 
+  /**
+   * Returns the canonical instance of {@code key} for this processing round. The first key
+   * interned for a given type, qualifier and multibinding contribution identifier becomes the
+   * canonical instance.
+   */
+  public Key intern(Key key) {
+    Key internedKey = internedKeys.putIfAbsent(checkNotNull(key), key);
+    return internedKey == null ? key : internedKey;
+  }
+
+  @Override
+  public void clearCache() {
+    internedKeys.clear();
+  }
+
   private TypeMirror boxPrimitives(TypeMirror type) {
     return type.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) type).asType() : type;
   }
@@ -125,11 +153,11 @@ public final class KeyFactory {
     checkArgument(subcomponentCreatorMethod.getKind().equals(METHOD));
     ExecutableType resolvedMethod =
         asExecutable(types.asMemberOf(declaredContainer, subcomponentCreatorMethod));
-    return Key.builder(fromJava(resolvedMethod.getReturnType())).build();
+    return intern(Key.builder(fromJava(resolvedMethod.getReturnType())).build());
   }
 
   public Key forSubcomponentCreator(TypeMirror creatorType) {
-    return Key.builder(fromJava(creatorType)).build();
+    return intern(Key.builder(fromJava(creatorType)).build());
   }
 
   public Key forProvidesMethod(ExecutableElement method, TypeElement contributingModule) {
@@ -183,10 +211,11 @@ public final class KeyFactory {
     Key key = forMethod(method, keyType);
     return contributionType.equals(ContributionType.UNIQUE)
         ? key
-        : key.toBuilder()
-            .multibindingContributionIdentifier(
-                new MultibindingContributionIdentifier(method, contributingModule))
-            .build();
+        : intern(
+            key.toBuilder()
+                .multibindingContributionIdentifier(
+                    new MultibindingContributionIdentifier(method, contributingModule))
+                .build());
   }
 
   /**
@@ -249,41 +278,47 @@ public final class KeyFactory {
   }
 
   public Key forInjectConstructorWithResolvedType(TypeMirror type) {
-    return Key.builder(fromJava(type)).build();
+    return intern(Key.builder(fromJava(type)).build());
   }
 
   // TODO(ronshapiro): Remove these conveniences which are simple wrappers around Key.Builder
   Key forType(TypeMirror type) {
-    return Key.builder(fromJava(type)).build();
+    return intern(Key.builder(fromJava(type)).build());
   }
 
   public Key forMembersInjectedType(TypeMirror type) {
-    return Key.builder(fromJava(type)).build();
+    return intern(Key.builder(fromJava(type)).build());
   }
 
   Key forQualifiedType(Optional<AnnotationMirror> qualifier, TypeMirror type) {
-    return Key.builder(fromJava(boxPrimitives(type)))
-        .qualifier(qualifier.map(DaggerAnnotation::fromJava))
-        .build();
+    return intern(
+        Key.builder(fromJava(boxPrimitives(type)))
+            .qualifier(qualifier.map(DaggerAnnotation::fromJava))
+            .build());
   }
 
   public Key forProductionExecutor() {
-    return Key.builder(fromJava(elements.getTypeElement(Executor.class).asType()))
-        .qualifier(fromJava(SimpleAnnotationMirror.of(elements.getTypeElement(Production.class))))
-        .build();
+    return intern(
+        Key.builder(fromJava(elements.getTypeElement(Executor.class).asType()))
+            .qualifier(
+                fromJava(SimpleAnnotationMirror.of(elements.getTypeElement(Production.class))))
+            .build());
   }
 
   public Key forProductionImplementationExecutor() {
-    return Key.builder(fromJava(elements.getTypeElement(Executor.class).asType()))
-        .qualifier(
-            fromJava(
-                SimpleAnnotationMirror.of(elements.getTypeElement(ProductionImplementation.class))))
-        .build();
+    return intern(
+        Key.builder(fromJava(elements.getTypeElement(Executor.class).asType()))
+            .qualifier(
+                fromJava(
+                    SimpleAnnotationMirror.of(
+                        elements.getTypeElement(ProductionImplementation.class))))
+            .build());
   }
 
   public Key forProductionComponentMonitor() {
-    return Key.builder(fromJava(elements.getTypeElement(ProductionComponentMonitor.class).asType()))
-        .build();
+    return intern(
+        Key.builder(fromJava(elements.getTypeElement(ProductionComponentMonitor.class).asType()))
+            .build());
   }
 
   /**
@@ -335,10 +370,12 @@ public final class KeyFactory {
       if (!mapType.isRawType()) {
         for (Class<?> frameworkClass : asList(Provider.class, Producer.class, Produced.class)) {
           if (mapType.valuesAreTypeOf(frameworkClass)) {
-            return key.toBuilder()
-                .type(
-                    fromJava(mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass))))
-                .build();
+            return intern(
+                key.toBuilder()
+                    .type(
+                        fromJava(
+                            mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass))))
+                    .build());
           }
         }
       }
@@ -381,9 +418,10 @@ public final class KeyFactory {
             types.getDeclaredType(
                 wrappingElement, mapType.unwrappedValueType(currentWrappingClass));
         return Optional.of(
-            possibleMapKey.toBuilder()
-                .type(fromJava(mapOf(mapType.keyType(), wrappedValueType)))
-                .build());
+            intern(
+                possibleMapKey.toBuilder()
+                    .type(fromJava(mapOf(mapType.keyType(), wrappedValueType)))
+                    .build()));
       }
     }
     return Optional.empty();
@@ -408,9 +446,10 @@ public final class KeyFactory {
         }
         DeclaredType wrappedValueType = types.getDeclaredType(wrappingElement, mapType.valueType());
         return Optional.of(
-            possibleMapKey.toBuilder()
-                .type(fromJava(mapOf(mapType.keyType(), wrappedValueType)))
-                .build());
+            intern(
+                possibleMapKey.toBuilder()
+                    .type(fromJava(mapOf(mapType.keyType(), wrappedValueType)))
+                    .build()));
       }
     }
     return Optional.empty();
@@ -425,9 +464,10 @@ public final class KeyFactory {
       SetType setType = SetType.from(key);
       if (!setType.isRawType() && setType.elementsAreTypeOf(wrappingClass)) {
         return Optional.of(
-            key.toBuilder()
-                .type(fromJava(setOf(setType.unwrappedElementType(wrappingClass))))
-                .build());
+            intern(
+                key.toBuilder()
+                    .type(fromJava(setOf(setType.unwrappedElementType(wrappingClass))))
+                    .build()));
       }
     }
     return Optional.empty();
@@ -444,6 +484,7 @@ public final class KeyFactory {
     }
 
     TypeMirror optionalValueType = OptionalType.from(key).valueType();
-    return Optional.of(key.toBuilder().type(fromJava(extractKeyType(optionalValueType))).build());
+    return Optional.of(
+        intern(key.toBuilder().type(fromJava(extractKeyType(optionalValueType))).build()));
   }
 }
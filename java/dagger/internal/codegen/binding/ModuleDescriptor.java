@@ -18,7 +18,6 @@ package dagger.internal.codegen.binding;
 
 import static com.google.auto.common.MoreElements.asExecutable;
 import static com.google.auto.common.MoreElements.getPackage;
-import static com.google.auto.common.MoreElements.isAnnotationPresent;
 import static com.google.common.base.CaseFormat.LOWER_CAMEL;
 import static com.google.common.base.CaseFormat.UPPER_CAMEL;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -28,6 +27,11 @@ import static dagger.internal.codegen.base.ModuleAnnotation.moduleAnnotation;
 import static dagger.internal.codegen.base.Util.reentrantComputeIfAbsent;
 import static dagger.internal.codegen.binding.SourceFiles.classFileName;
 import static dagger.internal.codegen.extension.DaggerStreams.toImmutableSet;
+import static dagger.internal.codegen.javapoet.TypeNames.BINDS;
+import static dagger.internal.codegen.javapoet.TypeNames.BINDS_OPTIONAL_OF;
+import static dagger.internal.codegen.javapoet.TypeNames.MULTIBINDS;
+import static dagger.internal.codegen.javapoet.TypeNames.PRODUCES;
+import static dagger.internal.codegen.javapoet.TypeNames.PROVIDES;
 import static dagger.internal.codegen.langmodel.DaggerElements.getMethodDescriptor;
 import static dagger.internal.codegen.langmodel.DaggerElements.isAnnotationPresent;
 import static javax.lang.model.type.TypeKind.DECLARED;
@@ -45,19 +49,18 @@ import com.squareup.javapoet.ClassName;
 import dagger.Binds;
 import dagger.BindsOptionalOf;
 import dagger.Module;
-import dagger.Provides;
 import dagger.internal.codegen.base.ClearableCache;
 import dagger.internal.codegen.kotlin.KotlinMetadataUtil;
 import dagger.internal.codegen.langmodel.DaggerElements;
-import dagger.multibindings.Multibinds;
-import dagger.producers.Produces;
 import dagger.spi.model.Key;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
@@ -107,6 +110,11 @@ public abstract class ModuleDescriptor {
   /** A {@link ModuleDescriptor} factory. */
   @Singleton
   public static final class Factory implements ClearableCache {
+    private static final ImmutableSet<String> BINDING_METHOD_ANNOTATIONS =
+        ImmutableSet.of(PROVIDES, PRODUCES, BINDS, MULTIBINDS, BINDS_OPTIONAL_OF).stream()
+            .map(ClassName::canonicalName)
+            .collect(toImmutableSet());
+
     private final DaggerElements elements;
     private final KotlinMetadataUtil metadataUtil;
     private final BindingFactory bindingFactory;
@@ -147,20 +155,24 @@ public abstract class ModuleDescriptor {
           ImmutableSet.builder();
 
       for (ExecutableElement moduleMethod : methodsIn(elements.getAllMembers(moduleElement))) {
-        if (isAnnotationPresent(moduleMethod, Provides.class)) {
+        ImmutableSet<String> annotations = bindingMethodAnnotations(moduleMethod);
+        if (annotations.isEmpty()) {
+          continue;
+        }
+        if (annotations.contains(PROVIDES.canonicalName())) {
           bindings.add(bindingFactory.providesMethodBinding(moduleMethod, moduleElement));
         }
-        if (isAnnotationPresent(moduleMethod, Produces.class)) {
+        if (annotations.contains(PRODUCES.canonicalName())) {
           bindings.add(bindingFactory.producesMethodBinding(moduleMethod, moduleElement));
         }
-        if (isAnnotationPresent(moduleMethod, Binds.class)) {
+        if (annotations.contains(BINDS.canonicalName())) {
           delegates.add(bindingDelegateDeclarationFactory.create(moduleMethod, moduleElement));
         }
-        if (isAnnotationPresent(moduleMethod, Multibinds.class)) {
+        if (annotations.contains(MULTIBINDS.canonicalName())) {
           multibindingDeclarations.add(
               multibindingDeclarationFactory.forMultibindsMethod(moduleMethod, moduleElement));
         }
-        if (isAnnotationPresent(moduleMethod, BindsOptionalOf.class)) {
+        if (annotations.contains(BINDS_OPTIONAL_OF.canonicalName())) {
           optionalDeclarations.add(
               optionalBindingDeclarationFactory.forMethod(moduleMethod, moduleElement));
         }
@@ -200,15 +212,42 @@ public abstract class ModuleDescriptor {
           .filter(method -> !bindingElementDescriptors.contains(getMethodDescriptor(method)))
           .forEach(
               method -> {
-                if (isAnnotationPresent(method, Provides.class)) {
+                ImmutableSet<String> annotations = bindingMethodAnnotations(method);
+                if (annotations.contains(PROVIDES.canonicalName())) {
                   bindings.add(bindingFactory.providesMethodBinding(method, companionModule));
                 }
-                if (isAnnotationPresent(method, Produces.class)) {
+                if (annotations.contains(PRODUCES.canonicalName())) {
                   bindings.add(bindingFactory.producesMethodBinding(method, companionModule));
                 }
               });
     }
 
+    /**
+     * Returns the canonical names of the binding method annotations present on {@code method}.
+     *
+     * <p>Modules inherit every method of {@link Object} and of their superclasses, most of which
+     * have no annotations at all, and checking each binding annotation separately re-reads and
+     * re-compares the qualified names of all of a method's annotations once per binding annotation.
+     * Reading them once keeps scanning large modules proportional to the number of annotations.
+     */
+    private static ImmutableSet<String> bindingMethodAnnotations(ExecutableElement method) {
+      List<? extends AnnotationMirror> annotationMirrors = method.getAnnotationMirrors();
+      if (annotationMirrors.isEmpty()) {
+        return ImmutableSet.of();
+      }
+      ImmutableSet.Builder<String> annotations = ImmutableSet.builder();
+      for (AnnotationMirror annotationMirror : annotationMirrors) {
+        String annotationName =
+            MoreElements.asType(annotationMirror.getAnnotationType().asElement())
+                .getQualifiedName()
+                .toString();
+        if (BINDING_METHOD_ANNOTATIONS.contains(annotationName)) {
+          annotations.add(annotationName);
+        }
+      }
+      return annotations.build();
+    }
+
     /** Returns all the modules transitively included by given modules, including the arguments. */
     ImmutableSet<ModuleDescriptor> transitiveModules(Iterable<TypeElement> modules) {
       return ImmutableSet.copyOf(
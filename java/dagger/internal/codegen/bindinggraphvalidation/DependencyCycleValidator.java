@@ -20,7 +20,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.limit;
 import static com.google.common.collect.Iterables.skip;
-import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
 import static dagger.internal.codegen.base.RequestKinds.extractKeyType;
 import static dagger.internal.codegen.base.RequestKinds.getRequestKind;
 import static dagger.internal.codegen.extension.DaggerGraphs.shortestPath;
@@ -34,12 +33,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.graph.EndpointPair;
-import com.google.common.graph.Graphs;
 import com.google.common.graph.ImmutableNetwork;
 import com.google.common.graph.MutableNetwork;
 import com.google.common.graph.NetworkBuilder;
 import dagger.internal.codegen.base.MapType;
 import dagger.internal.codegen.base.OptionalType;
+import dagger.internal.codegen.base.TarjanSCCs;
 import dagger.internal.codegen.binding.DependencyRequestFormatter;
 import dagger.spi.model.Binding;
 import dagger.spi.model.BindingGraph;
@@ -51,7 +50,10 @@ import dagger.spi.model.BindingKind;
 import dagger.spi.model.DependencyRequest;
 import dagger.spi.model.DiagnosticReporter;
 import dagger.spi.model.RequestKind;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -78,34 +80,62 @@ final class DependencyCycleValidator implements BindingGraphPlugin {
   public void visitGraph(BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
     ImmutableNetwork<Node, DependencyEdge> dependencyGraph =
         nonCycleBreakingDependencyGraph(bindingGraph);
-    // First check the graph for a cycle. If there is one, then we'll do more work to report where.
-    if (!Graphs.hasCycle(dependencyGraph)) {
+    // First decompose the graph into strongly connected components (SCCs) in a single linear pass.
+    // Every cycle lies entirely within one SCC, so if no SCC contains a cycle there is nothing to
+    // report, and otherwise only the edges within a cyclic SCC need more work to report where.
+    Map<Node, ImmutableSet<Node>> cyclicSccs = cyclicSccsByNode(dependencyGraph);
+    if (cyclicSccs.isEmpty()) {
       return;
     }
     // Check each endpoint pair only once, no matter how many parallel edges connect them.
     Set<EndpointPair<Node>> dependencyEndpointPairs = dependencyGraph.asGraph().edges();
-    Set<EndpointPair<Node>> visited = newHashSetWithExpectedSize(dependencyEndpointPairs.size());
+    Set<EndpointPair<Node>> visited = new HashSet<>();
     for (EndpointPair<Node> endpointPair : dependencyEndpointPairs) {
-      cycleContainingEndpointPair(endpointPair, dependencyGraph, visited)
+      cycleContainingEndpointPair(endpointPair, dependencyGraph, cyclicSccs, visited)
           .ifPresent(cycle -> reportCycle(cycle, bindingGraph, diagnosticReporter));
     }
   }
 
+  /**
+   * Returns the SCC of each node in {@code dependencyGraph} that is part of a cycle, i.e. each node
+   * in an SCC with more than one node or with a self-loop.
+   */
+  private static Map<Node, ImmutableSet<Node>> cyclicSccsByNode(
+      ImmutableNetwork<Node, DependencyEdge> dependencyGraph) {
+    Map<Node, ImmutableSet<Node>> cyclicSccs = new HashMap<>();
+    for (ImmutableSet<Node> scc :
+        TarjanSCCs.compute(ImmutableSet.copyOf(dependencyGraph.nodes()), dependencyGraph)) {
+      Node someNode = scc.iterator().next();
+      if (scc.size() > 1 || dependencyGraph.successors(someNode).contains(someNode)) {
+        scc.forEach(node -> cyclicSccs.put(node, scc));
+      }
+    }
+    return cyclicSccs;
+  }
+
   private Optional<Cycle<Node>> cycleContainingEndpointPair(
       EndpointPair<Node> endpoints,
       ImmutableNetwork<Node, DependencyEdge> dependencyGraph,
+      Map<Node, ImmutableSet<Node>> cyclicSccs,
       Set<EndpointPair<Node>> visited) {
+    // An edge is part of a cycle only if both of its endpoints are in the same cyclic SCC.
+    ImmutableSet<Node> scc = cyclicSccs.get(endpoints.source());
+    if (scc == null || !scc.contains(endpoints.target())) {
+      return Optional.empty();
+    }
+
     if (!visited.add(endpoints)) {
       // don't recheck endpoints we already know are part of a cycle
       return Optional.empty();
     }
 
-    // If there's a path from the target back to the source, there's a cycle.
+    // There is always a path from the target back to the source within their SCC, and no such
+    // path ever leaves it, so only search the SCC.
     ImmutableList<Node> cycleNodes =
-        shortestPath(dependencyGraph, endpoints.target(), endpoints.source());
-    if (cycleNodes.isEmpty()) {
-      return Optional.empty();
-    }
+        shortestPath(
+            node -> Iterables.filter(dependencyGraph.successors(node), scc::contains),
+            endpoints.target(),
+            endpoints.source());
 
     Cycle<Node> cycle = Cycle.fromPath(cycleNodes);
     visited.addAll(cycle.endpointPairs()); // no need to check any edge in this cycle again
@@ -91,6 +91,58 @@ public abstract class CompilerOptions {
 
   public abstract boolean experimentalDaggerErrorMessages();
 
+  /**
+   * Returns true if component shards should be created and initialized on first access rather than
+   * in the component's constructor.
+   *
+   * <p>This reduces component construction time for large sharded components when only part of the
+   * graph is used, at the cost of a volatile read on each access to a binding in another shard.
+   */
+  public abstract boolean lazyComponentShardInitialization(TypeElement component);
+
+  /**
+   * Returns true if component shards and initialization methods should be partitioned by their
+   * estimated class file size in addition to their number of bindings and statements.
+   *
+   * <p>If enabled, a new shard is started before the estimated constant pool of a shard gets close
+   * to the class file limit, initialization methods are kept below the size at which the JIT stops
+   * compiling methods, and the resulting shard sizes are reported as a note.
+   */
+  public abstract boolean sizeAwareComponentSharding(TypeElement component);
+
+  /**
+   * Returns true if the component should call accessible {@code @Inject} constructors, {@code
+   * Provides} methods and injected members directly, rather than through the static methods of
+   * their generated factories and members injectors.
+   *
+   * <p>Together with {@link #fastInit(TypeElement)}, this avoids loading and verifying the
+   * generated factory and members injector classes of most bindings at runtime.
+   */
+  public abstract boolean inlineInjectionMethods(TypeElement component);
+
+  /**
+   * Returns true if a class list, in the format used to create AppCDS archives, should be written
+   * for the generated implementation of the root component {@code component}.
+   */
+  public abstract boolean generateComponentClassLists(TypeElement component);
+
+  /**
+   * Returns true if a JSON report of the size of the generated implementation of the root
+   * component {@code component} should be written, e.g. its classes, fields and methods, and the
+   * longest chain of dependencies in its graph.
+   */
+  public abstract boolean generateComponentComplexityReports(TypeElement component);
+
+  /**
+   * Returns true if the framework fields of the subcomponent {@code subcomponent}, including the
+   * {@code DoubleCheck}s of its scoped bindings, should be created on first use rather than in the
+   * subcomponent's constructor.
+   *
+   * <p>This makes creating short-lived subcomponents, e.g. one per request, cheaper when each
+   * instance only uses a few of its bindings, at the cost of a volatile read on each access.
+   */
+  public abstract boolean lazySubcomponentFrameworkFields(TypeElement subcomponent);
+
   /** Returns the number of bindings allowed per shard. */
   public int keysPerComponentShard(TypeElement component) {
     return 3500;
@@ -118,4 +118,34 @@ public final class JavacPluginCompilerOptions extends CompilerOptions {
   public boolean strictMultibindingValidation() {
     return false;
   }
+
+  @Override
+  public boolean lazyComponentShardInitialization(TypeElement component) {
+    return false;
+  }
+
+  @Override
+  public boolean sizeAwareComponentSharding(TypeElement component) {
+    return false;
+  }
+
+  @Override
+  public boolean inlineInjectionMethods(TypeElement component) {
+    return false;
+  }
+
+  @Override
+  public boolean generateComponentClassLists(TypeElement component) {
+    return false;
+  }
+
+  @Override
+  public boolean lazySubcomponentFrameworkFields(TypeElement subcomponent) {
+    return false;
+  }
+
+  @Override
+  public boolean generateComponentComplexityReports(TypeElement component) {
+    return false;
+  }
 }
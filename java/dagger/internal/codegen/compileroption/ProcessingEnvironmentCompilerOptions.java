@@ -28,8 +28,14 @@ import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompil
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.FAST_INIT;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.FLOATING_BINDS_METHODS;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.FORMAT_GENERATED_SOURCE;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.GENERATE_COMPONENT_CLASS_LISTS;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.GENERATE_COMPONENT_COMPLEXITY_REPORTS;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.IGNORE_PRIVATE_AND_STATIC_INJECTION_FOR_COMPONENT;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.INLINE_INJECTION_METHODS;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.LAZY_COMPONENT_SHARD_INITIALIZATION;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.LAZY_SUBCOMPONENT_FRAMEWORK_FIELDS;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.PLUGINS_VISIT_FULL_BINDING_GRAPHS;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.SIZE_AWARE_COMPONENT_SHARDING;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.STRICT_MULTIBINDING_VALIDATION;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.VALIDATE_TRANSITIVE_COMPONENT_DEPENDENCIES;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.WARN_IF_INJECTION_FACTORY_NOT_GENERATED_UPSTREAM;
@@ -179,6 +185,36 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
     return isEnabled(STRICT_MULTIBINDING_VALIDATION);
   }
 
+  @Override
+  public boolean inlineInjectionMethods(TypeElement component) {
+    return isEnabled(INLINE_INJECTION_METHODS);
+  }
+
+  @Override
+  public boolean generateComponentClassLists(TypeElement component) {
+    return isEnabled(GENERATE_COMPONENT_CLASS_LISTS);
+  }
+
+  @Override
+  public boolean generateComponentComplexityReports(TypeElement component) {
+    return isEnabled(GENERATE_COMPONENT_COMPLEXITY_REPORTS);
+  }
+
+  @Override
+  public boolean lazyComponentShardInitialization(TypeElement component) {
+    return isEnabled(LAZY_COMPONENT_SHARD_INITIALIZATION);
+  }
+
+  @Override
+  public boolean lazySubcomponentFrameworkFields(TypeElement subcomponent) {
+    return isEnabled(LAZY_SUBCOMPONENT_FRAMEWORK_FIELDS);
+  }
+
+  @Override
+  public boolean sizeAwareComponentSharding(TypeElement component) {
+    return isEnabled(SIZE_AWARE_COMPONENT_SHARDING);
+  }
+
   @Override
   public int keysPerComponentShard(TypeElement component) {
     if (options.containsKey(KEYS_PER_COMPONENT_SHARD)) {
@@ -303,7 +339,19 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
 
     STRICT_MULTIBINDING_VALIDATION,
 
-    VALIDATE_TRANSITIVE_COMPONENT_DEPENDENCIES(ENABLED)
+    VALIDATE_TRANSITIVE_COMPONENT_DEPENDENCIES(ENABLED),
+
+    LAZY_COMPONENT_SHARD_INITIALIZATION,
+
+    SIZE_AWARE_COMPONENT_SHARDING,
+
+    INLINE_INJECTION_METHODS,
+
+    GENERATE_COMPONENT_CLASS_LISTS,
+
+    LAZY_SUBCOMPONENT_FRAMEWORK_FIELDS,
+
+    GENERATE_COMPONENT_COMPLEXITY_REPORTS
     ;
 
     final FeatureStatus defaultValue;
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.componentgenerator;
+
+import static dagger.internal.codegen.javapoet.TypeNames.DELEGATE_FACTORY;
+import static dagger.internal.codegen.javapoet.TypeNames.PRECONDITIONS;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import androidx.room.compiler.processing.XFiler;
+import androidx.room.compiler.processing.compat.XConverters;
+import com.google.common.base.Joiner;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeSpec;
+import dagger.internal.codegen.binding.Binding;
+import dagger.internal.codegen.binding.BindingGraph;
+import dagger.internal.codegen.binding.BindingNode;
+import dagger.internal.codegen.langmodel.DaggerElements;
+import dagger.internal.codegen.writing.BindingClassReferences;
+import dagger.spi.model.BindingGraph.DependencyEdge;
+import dagger.spi.model.BindingGraph.Edge;
+import dagger.spi.model.BindingGraph.Node;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.inject.Inject;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Writes the classes that a generated root component loads, in the format expected by {@code
+ * -XX:SharedClassListFile}, so that they can be added to an AppCDS archive.
+ *
+ * <p>The class list for {@code test.DaggerFooComponent} is written to {@code
+ * META-INF/dagger/classlists/test/DaggerFooComponent.classlist}. It contains the component itself
+ * and its nested classes, followed by the classes used to satisfy each binding in the graph (the
+ * binding's type or module, and the generated and runtime classes that {@link
+ * BindingClassReferences} finds the component refers to for it). Bindings are listed in reverse
+ * topological order, which approximates the order in which the component initializes them.
+ */
+final class ComponentClassListGenerator {
+  private final XFiler filer;
+  private final DaggerElements elements;
+  private final BindingClassReferences bindingClassReferences;
+
+  @Inject
+  ComponentClassListGenerator(
+      XFiler filer, DaggerElements elements, BindingClassReferences bindingClassReferences) {
+    this.filer = filer;
+    this.elements = elements;
+    this.bindingClassReferences = bindingClassReferences;
+  }
+
+  /** Writes the class list of the root component implementation {@code component}. */
+  void generate(ClassName name, TypeSpec component, BindingGraph graph) {
+    Set<String> classList = new LinkedHashSet<>();
+    classList.add(internalName(name));
+    addNestedClasses(name, component, classList);
+    if (hasRequirementsToCheck(graph)) {
+      classList.add(internalName(PRECONDITIONS));
+    }
+
+    for (Collection<Node> nodes : graph.topLevelBindingGraph().stronglyConnectedNodes()) {
+      if (nodes.size() > 1) {
+        // A dependency cycle is broken with a DelegateFactory.
+        classList.add(internalName(DELEGATE_FACTORY));
+      }
+      for (Node node : nodes) {
+        if (node instanceof BindingNode) {
+          addBindingClasses(((BindingNode) node).delegate(), name, graph, classList);
+        }
+      }
+    }
+    for (Edge edge : graph.topLevelBindingGraph().network().edges()) {
+      if (edge instanceof DependencyEdge) {
+        BindingClassReferences.referencedClasses(
+                ((DependencyEdge) edge).dependencyRequest().kind())
+            .forEach(className -> classList.add(internalName(className)));
+      }
+    }
+
+    String resourceName = "META-INF/dagger/classlists/" + internalName(name) + ".classlist";
+    try (Writer writer =
+        XConverters.toJavac(filer)
+            .createResource(CLASS_OUTPUT, "", resourceName, graph.componentTypeElement())
+            .openWriter()) {
+      for (String className : classList) {
+        writer.write(className);
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void addNestedClasses(ClassName name, TypeSpec type, Set<String> classList) {
+    for (TypeSpec nestedType : type.typeSpecs) {
+      ClassName nestedName = name.nestedClass(nestedType.name);
+      classList.add(internalName(nestedName));
+      addNestedClasses(nestedName, nestedType, classList);
+    }
+  }
+
+  /**
+   * Returns {@code true} if a component in the tree of {@code graph} has requirements, which its
+   * creator or factory method checks for null with {@code Preconditions}.
+   */
+  private static boolean hasRequirementsToCheck(BindingGraph graph) {
+    return !graph.componentRequirements().isEmpty()
+        || !graph.factoryMethodParameters().isEmpty()
+        || graph.subgraphs().stream().anyMatch(ComponentClassListGenerator::hasRequirementsToCheck);
+  }
+
+  private void addBindingClasses(
+      Binding binding, ClassName name, BindingGraph graph, Set<String> classList) {
+    binding.contributingModule().ifPresent(module -> classList.add(internalName(module)));
+    binding.bindingTypeElement().ifPresent(type -> classList.add(internalName(type)));
+    bindingClassReferences
+        .referencedClasses(binding, graph, name)
+        .forEach(className -> classList.add(internalName(className)));
+  }
+
+  private String internalName(TypeElement typeElement) {
+    return elements.getBinaryName(typeElement).toString().replace('.', '/');
+  }
+
+  private static String internalName(ClassName className) {
+    String binarySimpleName = Joiner.on('$').join(className.simpleNames());
+    return className.packageName().isEmpty()
+        ? binarySimpleName
+        : className.packageName().replace('.', '/') + "/" + binarySimpleName;
+  }
+}
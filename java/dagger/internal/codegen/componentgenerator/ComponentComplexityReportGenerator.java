@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.componentgenerator;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.function.Function.identity;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import androidx.room.compiler.processing.XFiler;
+import androidx.room.compiler.processing.compat.XConverters;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.graph.ImmutableNetwork;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeSpec;
+import dagger.internal.codegen.binding.BindingGraph;
+import dagger.internal.codegen.binding.BindingNode;
+import dagger.internal.codegen.writing.ShardStatistics;
+import dagger.spi.model.BindingGraph.DependencyEdge;
+import dagger.spi.model.BindingGraph.Edge;
+import dagger.spi.model.BindingGraph.Node;
+import dagger.spi.model.RequestKind;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.lang.model.element.Element;
+
+/**
+ * Writes a JSON report of the size of the generated implementation of a root component, to help
+ * find components that are slow to load or initialize before they become a problem.
+ *
+ * <p>The report for {@code test.DaggerFooComponent} is written to {@code
+ * META-INF/dagger/reports/test/DaggerFooComponent.json}. It lists each generated class (including
+ * subcomponent implementations) with its number of fields and methods. Component and shard classes
+ * also report the number of bindings they own, their estimated constant pool entries and
+ * initialization bytecode size, and the number of cases in their {@code SwitchingProvider}s. It
+ * also reports the number of scoped bindings, which are each wrapped in a {@code DoubleCheck}, and
+ * the longest chain of instance dependencies in the binding graph, which bounds the depth of the
+ * component's initialization.
+ */
+final class ComponentComplexityReportGenerator {
+  private final XFiler filer;
+
+  @Inject
+  ComponentComplexityReportGenerator(XFiler filer) {
+    this.filer = filer;
+  }
+
+  /** Writes the report for the root component implementation {@code component}. */
+  void generate(
+      ClassName name,
+      TypeSpec component,
+      ImmutableList<ShardStatistics> shardStatistics,
+      BindingGraph graph,
+      Element originatingElement) {
+    ImmutableMap<ClassName, ShardStatistics> statisticsByName =
+        shardStatistics.stream().collect(toImmutableMap(ShardStatistics::name, identity()));
+    ImmutableList.Builder<String> classReports = ImmutableList.builder();
+    addClassReports(name, component, statisticsByName, classReports);
+
+    StringBuilder report = new StringBuilder();
+    report.append("{\n");
+    report.append("  \"component\": ").append(quote(name.canonicalName())).append(",\n");
+    report
+        .append("  \"shards\": ")
+        .append(shardStatistics.stream().filter(shard -> !shard.isComponentShard()).count())
+        .append(",\n");
+    report.append("  \"classes\": [\n");
+    report.append(String.join(",\n", classReports.build())).append("\n");
+    report.append("  ],\n");
+    report
+        .append("  \"doubleCheckBindings\": ")
+        .append(countDoubleCheckBindings(graph))
+        .append(",\n");
+    report.append("  \"longestDependencyChain\": [");
+    ImmutableList<String> chain = longestDependencyChain(graph);
+    for (int i = 0; i < chain.size(); i++) {
+      report.append(i == 0 ? "\n" : ",\n").append("    ").append(quote(chain.get(i)));
+    }
+    report.append(chain.isEmpty() ? "]\n" : "\n  ]\n");
+    report.append("}\n");
+
+    String resourceName =
+        String.format(
+            "META-INF/dagger/reports/%s.json",
+            name.packageName().isEmpty()
+                ? name.simpleName()
+                : name.packageName().replace('.', '/') + "/" + name.simpleName());
+    try (Writer writer =
+        XConverters.toJavac(filer)
+            .createResource(CLASS_OUTPUT, "", resourceName, originatingElement)
+            .openWriter()) {
+      writer.write(report.toString());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void addClassReports(
+      ClassName name,
+      TypeSpec type,
+      ImmutableMap<ClassName, ShardStatistics> statisticsByName,
+      ImmutableList.Builder<String> classReports) {
+    StringBuilder classReport =
+        new StringBuilder(
+            String.format(
+                "    {\"name\": %s, \"fields\": %d, \"methods\": %d",
+                quote(name.canonicalName()),
+                type.fieldSpecs.size(),
+                type.methodSpecs.size()));
+    ShardStatistics statistics = statisticsByName.get(name);
+    if (statistics != null) {
+      classReport.append(
+          String.format(
+              ", \"bindings\": %d, \"estimatedConstantPoolEntries\": %d, "
+                  + "\"estimatedInitializationBytes\": %d, \"switchingProviderCases\": %d",
+              statistics.bindings(),
+              statistics.estimatedConstantPoolEntries(),
+              statistics.estimatedInitializationBytes(),
+              statistics.switchingProviderCases()));
+    }
+    classReports.add(classReport.append("}").toString());
+    for (TypeSpec nestedType : type.typeSpecs) {
+      addClassReports(
+          name.nestedClass(nestedType.name), nestedType, statisticsByName, classReports);
+    }
+  }
+
+  /** Returns the number of bindings in the graph with a (non-reusable) scope. */
+  private static long countDoubleCheckBindings(BindingGraph graph) {
+    return graph.topLevelBindingGraph().network().nodes().stream()
+        .filter(node -> node instanceof BindingNode)
+        .map(node -> ((BindingNode) node).delegate().scope())
+        .filter(scope -> scope.isPresent() && !scope.get().isReusable())
+        .count();
+  }
+
+  /**
+   * Returns the keys of the longest chain of bindings in the graph where each binding requests an
+   * instance of the next one.
+   */
+  private static ImmutableList<String> longestDependencyChain(BindingGraph graph) {
+    ImmutableNetwork<Node, Edge> network = graph.topLevelBindingGraph().network();
+    Map<Node, Integer> lengths = new HashMap<>();
+    Map<Node, Node> next = new HashMap<>();
+    Node longest = null;
+    // The strongly connected nodes are in reverse topological order, so all of a node's
+    // dependencies are visited before it, except for those in the same cycle.
+    for (Iterable<Node> nodes : graph.topLevelBindingGraph().stronglyConnectedNodes()) {
+      for (Node node : nodes) {
+        if (!(node instanceof BindingNode)) {
+          continue;
+        }
+        int length = 1;
+        for (Edge edge : network.outEdges(node)) {
+          if (edge instanceof DependencyEdge
+              && ((DependencyEdge) edge).dependencyRequest().kind().equals(RequestKind.INSTANCE)) {
+            Node dependency = network.incidentNodes(edge).target();
+            if (lengths.getOrDefault(dependency, 0) + 1 > length) {
+              length = lengths.get(dependency) + 1;
+              next.put(node, dependency);
+            }
+          }
+        }
+        lengths.put(node, length);
+        if (longest == null || length > lengths.get(longest)) {
+          longest = node;
+        }
+      }
+    }
+    ImmutableList.Builder<String> chain = ImmutableList.builder();
+    for (Node node = longest; node != null; node = next.get(node)) {
+      chain.add(((BindingNode) node).key().toString());
+    }
+    return chain.build();
+  }
+
+  private static String quote(String string) {
+    StringBuilder quoted = new StringBuilder("\"");
+    for (char c : string.toCharArray()) {
+      switch (c) {
+        case '"':
+        case '\\':
+          quoted.append('\\').append(c);
+          break;
+        default:
+          if (c < 0x20) {
+            quoted.append(String.format("\\u%04x", (int) c));
+          } else {
+            quoted.append(c);
+          }
+      }
+    }
+    return quoted.append('"').toString();
+  }
+}
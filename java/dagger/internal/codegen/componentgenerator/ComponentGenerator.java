@@ -25,6 +25,7 @@ import com.squareup.javapoet.TypeSpec;
 import dagger.Component;
 import dagger.internal.codegen.base.SourceFileGenerator;
 import dagger.internal.codegen.binding.BindingGraph;
+import dagger.internal.codegen.compileroption.CompilerOptions;
 import dagger.internal.codegen.langmodel.DaggerElements;
 import dagger.internal.codegen.writing.ComponentImplementation;
 import java.util.Optional;
@@ -35,15 +36,24 @@ import javax.lang.model.element.Element;
 /** Generates the implementation of the abstract types annotated with {@link Component}. */
 final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
   private final TopLevelImplementationComponent.Factory topLevelImplementationComponentFactory;
+  private final CompilerOptions compilerOptions;
+  private final ComponentClassListGenerator classListGenerator;
+  private final ComponentComplexityReportGenerator complexityReportGenerator;
 
   @Inject
   ComponentGenerator(
       XFiler filer,
       DaggerElements elements,
       SourceVersion sourceVersion,
-      TopLevelImplementationComponent.Factory topLevelImplementationComponentFactory) {
+      TopLevelImplementationComponent.Factory topLevelImplementationComponentFactory,
+      CompilerOptions compilerOptions,
+      ComponentClassListGenerator classListGenerator,
+      ComponentComplexityReportGenerator complexityReportGenerator) {
     super(filer, elements, sourceVersion);
     this.topLevelImplementationComponentFactory = topLevelImplementationComponentFactory;
+    this.compilerOptions = compilerOptions;
+    this.classListGenerator = classListGenerator;
+    this.complexityReportGenerator = complexityReportGenerator;
   }
 
   @Override
@@ -67,6 +77,18 @@ final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
         componentImplementation
             .name()
             .equals(getRootComponentClassName(bindingGraph.componentDescriptor())));
-    return ImmutableList.of(componentImplementation.generate().toBuilder());
+    TypeSpec component = componentImplementation.generate();
+    if (compilerOptions.generateComponentClassLists(bindingGraph.componentTypeElement())) {
+      classListGenerator.generate(componentImplementation.name(), component, bindingGraph);
+    }
+    if (compilerOptions.generateComponentComplexityReports(bindingGraph.componentTypeElement())) {
+      complexityReportGenerator.generate(
+          componentImplementation.name(),
+          component,
+          componentImplementation.shardStatistics(),
+          bindingGraph,
+          bindingGraph.componentTypeElement());
+    }
+    return ImmutableList.of(component.toBuilder());
   }
 }
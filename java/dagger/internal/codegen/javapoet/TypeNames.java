@@ -50,23 +50,32 @@ public final class TypeNames {
   public static final ClassName SUBCOMPONENT = ClassName.get("dagger", "Subcomponent");
   public static final ClassName SUBCOMPONENT_BUILDER = SUBCOMPONENT.nestedClass("Builder");
   public static final ClassName SUBCOMPONENT_FACTORY = SUBCOMPONENT.nestedClass("Factory");
+  public static final ClassName WARM_UP_SCOPED_BINDINGS =
+      ClassName.get("dagger", "WarmUpScopedBindings");
 
   // Dagger Internal classnames
+  public static final ClassName DELEGATE_FACTORY =
+      ClassName.get("dagger.internal", "DelegateFactory");
   public static final ClassName DOUBLE_CHECK = ClassName.get("dagger.internal", "DoubleCheck");
   public static final ClassName FACTORY = ClassName.get("dagger.internal", "Factory");
   public static final ClassName INJECTED_FIELD_SIGNATURE =
       ClassName.get("dagger.internal", "InjectedFieldSignature");
   public static final ClassName INSTANCE_FACTORY =
       ClassName.get("dagger.internal", "InstanceFactory");
+  public static final ClassName MAP_BUILDER = ClassName.get("dagger.internal", "MapBuilder");
   public static final ClassName MAP_FACTORY = ClassName.get("dagger.internal", "MapFactory");
   public static final ClassName MAP_PROVIDER_FACTORY =
       ClassName.get("dagger.internal", "MapProviderFactory");
   public static final ClassName MEMBERS_INJECTOR = ClassName.get("dagger", "MembersInjector");
   public static final ClassName MEMBERS_INJECTORS =
       ClassName.get("dagger.internal", "MembersInjectors");
+  public static final ClassName PARALLEL_WARM_UP =
+      ClassName.get("dagger.internal", "ParallelWarmUp");
+  public static final ClassName PRECONDITIONS = ClassName.get("dagger.internal", "Preconditions");
   public static final ClassName PROVIDER = ClassName.get("javax.inject", "Provider");
   public static final ClassName PROVIDER_OF_LAZY =
       ClassName.get("dagger.internal", "ProviderOfLazy");
+  public static final ClassName SET_BUILDER = ClassName.get("dagger.internal", "SetBuilder");
   public static final ClassName SET_FACTORY = ClassName.get("dagger.internal", "SetFactory");
   public static final ClassName SINGLE_CHECK = ClassName.get("dagger.internal", "SingleCheck");
   public static final ClassName LAZY = ClassName.get("dagger", "Lazy");
@@ -121,6 +130,7 @@ public final class TypeNames {
   public static final ClassName INJECT = ClassName.get("javax.inject", "Inject");
   public static final ClassName LIST = ClassName.get("java.util", "List");
   public static final ClassName SET = ClassName.get("java.util", "Set");
+  public static final ClassName EXECUTOR = ClassName.get("java.util.concurrent", "Executor");
   public static final ClassName FUTURES =
       ClassName.get("com.google.common.util.concurrent", "Futures");
   public static final ClassName LISTENABLE_FUTURE =
@@ -39,6 +39,7 @@ import dagger.internal.codegen.binding.BindingDeclaration;
 import dagger.internal.codegen.binding.BindingGraphFactory;
 import dagger.internal.codegen.binding.BindingNode;
 import dagger.internal.codegen.binding.ComponentDescriptorFactory;
+import dagger.internal.codegen.binding.KeyFactory;
 import dagger.internal.codegen.binding.ModuleDescriptor;
 import dagger.internal.codegen.javac.JavacPluginModule;
 import dagger.internal.codegen.javapoet.TypeNames;
@@ -65,6 +66,7 @@ public class DaggerKythePlugin extends Plugin.Scanner<Void, Void> {
   private FactEmitter emitter;
   @Inject ComponentDescriptorFactory componentDescriptorFactory;
   @Inject BindingGraphFactory bindingGraphFactory;
+  @Inject KeyFactory keyFactory;
 
   @Override
   public Void visitClassDef(JCClassDecl tree, Void p) {
@@ -178,7 +180,13 @@ public class DaggerKythePlugin extends Plugin.Scanner<Void, Void> {
           .build()
           .inject(this);
     }
-    super.run(compilationUnit, entrySets, kytheGraph);
+    try {
+      super.run(compilationUnit, entrySets, kytheGraph);
+    } finally {
+      // The component lives for the whole compilation, so release the keys interned for this
+      // compilation unit rather than relying on the processor's per-round cache clearing.
+      keyFactory.clearCache();
+    }
   }
 
   @Singleton
@@ -177,6 +177,7 @@ public final class ComponentValidator implements ClearableCache {
       }
 
       validateUseOfCancellationPolicy();
+      validateUseOfWarmUpScopedBindings();
       validateIsAbstractType();
       validateCreators();
       validateNoReusableAnnotation();
@@ -207,6 +208,13 @@ public final class ComponentValidator implements ClearableCache {
       }
     }
 
+    private void validateUseOfWarmUpScopedBindings() {
+      if (isAnnotationPresent(component, TypeNames.WARM_UP_SCOPED_BINDINGS)
+          && (!componentKind().isRoot() || componentKind().isProducer())) {
+        report.addError("@WarmUpScopedBindings may only be applied to @Component types", component);
+      }
+    }
+
     private void validateIsAbstractType() {
       if (!component.getKind().equals(INTERFACE)
           && !(component.getKind().equals(CLASS) && component.getModifiers().contains(ABSTRACT))) {
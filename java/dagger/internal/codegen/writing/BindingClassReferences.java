@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.writing;
+
+import static com.google.auto.common.MoreElements.asType;
+import static dagger.internal.codegen.binding.SourceFiles.generatedClassNameForBinding;
+import static dagger.internal.codegen.binding.SourceFiles.mapFactoryClassName;
+import static dagger.internal.codegen.binding.SourceFiles.membersInjectorNameForType;
+import static dagger.internal.codegen.binding.SourceFiles.setFactoryClassName;
+import static dagger.internal.codegen.javapoet.TypeNames.DOUBLE_CHECK;
+import static dagger.internal.codegen.javapoet.TypeNames.INSTANCE_FACTORY;
+import static dagger.internal.codegen.javapoet.TypeNames.MAP_BUILDER;
+import static dagger.internal.codegen.javapoet.TypeNames.MEMBERS_INJECTORS;
+import static dagger.internal.codegen.javapoet.TypeNames.PRECONDITIONS;
+import static dagger.internal.codegen.javapoet.TypeNames.PROVIDER_OF_LAZY;
+import static dagger.internal.codegen.javapoet.TypeNames.SET_BUILDER;
+import static dagger.internal.codegen.javapoet.TypeNames.SINGLE_CHECK;
+import static dagger.internal.codegen.writing.FrameworkInstanceBindingRepresentation.usesSwitchingProvider;
+import static dagger.internal.codegen.writing.SimpleMethodRequestRepresentation.usesInjectionMethod;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.ClassName;
+import dagger.internal.codegen.binding.Binding;
+import dagger.internal.codegen.binding.BindingGraph;
+import dagger.internal.codegen.binding.ContributionBinding;
+import dagger.internal.codegen.binding.MembersInjectionBinding;
+import dagger.internal.codegen.binding.MembersInjectionBinding.InjectionSite;
+import dagger.internal.codegen.binding.ProvisionBinding;
+import dagger.internal.codegen.compileroption.CompilerOptions;
+import dagger.internal.codegen.langmodel.DaggerElements;
+import dagger.spi.model.RequestKind;
+import javax.inject.Inject;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * The generated and runtime classes that a root component implementation refers to in order to
+ * satisfy a binding. These follow the choices that the binding's request representations make, so
+ * that, for example, a binding's factory is only included in fastInit mode if the component still
+ * calls its injection method.
+ */
+public final class BindingClassReferences {
+  private final CompilerOptions compilerOptions;
+  private final DaggerElements elements;
+
+  @Inject
+  BindingClassReferences(CompilerOptions compilerOptions, DaggerElements elements) {
+    this.compilerOptions = compilerOptions;
+    this.elements = elements;
+  }
+
+  /**
+   * Returns the classes that the root component implementation {@code componentName} of {@code
+   * graph} may refer to when it provides {@code binding}.
+   */
+  public ImmutableSet<ClassName> referencedClasses(
+      Binding binding, BindingGraph graph, ClassName componentName) {
+    TypeElement rootComponent = graph.componentTypeElement();
+    boolean isFastInit = compilerOptions.fastInit(rootComponent);
+    ImmutableSet.Builder<ClassName> classes = ImmutableSet.builder();
+    if (binding instanceof ContributionBinding
+        && !usesSwitchingProvider((ContributionBinding) binding, isFastInit)) {
+      addFrameworkInstanceClasses((ContributionBinding) binding, classes);
+    }
+    switch (binding.kind()) {
+      case INJECTION:
+      case PROVISION:
+        if (usesInjectionMethod(
+            (ProvisionBinding) binding,
+            compilerOptions,
+            compilerOptions.inlineInjectionMethods(rootComponent),
+            componentName)) {
+          classes.add(generatedClassNameForBinding(binding));
+        }
+        break;
+      case ASSISTED_INJECTION:
+      case ASSISTED_FACTORY:
+      case PRODUCTION:
+        classes.add(generatedClassNameForBinding(binding));
+        break;
+      case MULTIBOUND_SET:
+        if (binding.dependencies().size() > 1 && !isAvailable(ImmutableSet.class)) {
+          classes.add(SET_BUILDER);
+        }
+        break;
+      case MULTIBOUND_MAP:
+        if (binding.dependencies().size() > 1 && !isAvailable(ImmutableMap.class)) {
+          classes.add(MAP_BUILDER);
+        }
+        break;
+      default:
+        break;
+    }
+    if (binding instanceof ProvisionBinding
+        && ((ProvisionBinding) binding).shouldCheckForNull(compilerOptions)) {
+      classes.add(PRECONDITIONS);
+    }
+    // The members injector of every type that declares an injection site is called, either from
+    // the component or from the binding's factory.
+    for (InjectionSite injectionSite : injectionSites(binding)) {
+      TypeElement enclosingType = asType(injectionSite.element().getEnclosingElement());
+      classes.add(membersInjectorNameForType(enclosingType));
+    }
+    binding
+        .scope()
+        .ifPresent(scope -> classes.add(scope.isReusable() ? SINGLE_CHECK : DOUBLE_CHECK));
+    return classes.build();
+  }
+
+  /** Returns the classes that a component refers to when satisfying a {@code requestKind}. */
+  public static ImmutableSet<ClassName> referencedClasses(RequestKind requestKind) {
+    switch (requestKind) {
+      case LAZY:
+        return ImmutableSet.of(DOUBLE_CHECK);
+      case PROVIDER_OF_LAZY:
+        return ImmutableSet.of(PROVIDER_OF_LAZY, DOUBLE_CHECK);
+      default:
+        return ImmutableSet.of();
+    }
+  }
+
+  /**
+   * Adds the classes used to create the framework instance of {@code binding} from its static
+   * factory, which are the same as in {@link UnscopedFrameworkInstanceCreationExpressionFactory}.
+   */
+  private static void addFrameworkInstanceClasses(
+      ContributionBinding binding, ImmutableSet.Builder<ClassName> classes) {
+    switch (binding.kind()) {
+      case COMPONENT:
+      case BOUND_INSTANCE:
+      case COMPONENT_DEPENDENCY:
+        classes.add(INSTANCE_FACTORY);
+        break;
+      case MEMBERS_INJECTOR:
+        classes.add(INSTANCE_FACTORY);
+        if (((ProvisionBinding) binding).injectionSites().isEmpty()) {
+          classes.add(MEMBERS_INJECTORS);
+        }
+        break;
+      case INJECTION:
+      case PROVISION:
+        classes.add(generatedClassNameForBinding(binding));
+        break;
+      case MULTIBOUND_SET:
+        classes.add(setFactoryClassName(binding));
+        break;
+      case MULTIBOUND_MAP:
+        classes.add(mapFactoryClassName(binding));
+        break;
+      case OPTIONAL:
+        if (binding.dependencies().isEmpty()) {
+          classes.add(INSTANCE_FACTORY);
+        } else {
+          // The PresentFactory nested in the component checks its delegate for null, and is
+          // wrapped in a SingleCheck if the optional's value is stable. The binding may belong to a
+          // subcomponent, so the root graph can't tell whether that's the case.
+          classes.add(PRECONDITIONS);
+          classes.add(SINGLE_CHECK);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  private boolean isAvailable(Class<?> clazz) {
+    return elements.getTypeElement(clazz) != null;
+  }
+
+  private static ImmutableSet<InjectionSite> injectionSites(Binding binding) {
+    if (binding instanceof ProvisionBinding) {
+      return ((ProvisionBinding) binding).injectionSites();
+    } else if (binding instanceof MembersInjectionBinding) {
+      return ((MembersInjectionBinding) binding).injectionSites();
+    }
+    return ImmutableSet.of();
+  }
+}
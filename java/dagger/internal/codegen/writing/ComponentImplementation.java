@@ -25,6 +25,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.squareup.javapoet.MethodSpec.constructorBuilder;
 import static com.squareup.javapoet.MethodSpec.methodBuilder;
 import static com.squareup.javapoet.TypeSpec.classBuilder;
+import static dagger.internal.codegen.binding.BindingRequest.bindingRequest;
 import static dagger.internal.codegen.binding.ComponentCreatorKind.BUILDER;
 import static dagger.internal.codegen.binding.SourceFiles.simpleVariableName;
 import static dagger.internal.codegen.extension.DaggerStreams.instancesOf;
@@ -34,13 +35,17 @@ import static dagger.internal.codegen.javapoet.AnnotationSpecs.Suppression.UNCHE
 import static dagger.internal.codegen.javapoet.AnnotationSpecs.suppressWarnings;
 import static dagger.internal.codegen.javapoet.CodeBlocks.parameterNames;
 import static dagger.internal.codegen.langmodel.Accessibility.isTypeAccessibleFrom;
+import static dagger.internal.codegen.langmodel.DaggerElements.isAnnotationPresent;
 import static dagger.internal.codegen.writing.ComponentImplementation.MethodSpecKind.COMPONENT_METHOD;
 import static dagger.producers.CancellationPolicy.Propagation.PROPAGATE;
+import static java.util.stream.Collectors.joining;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.element.Modifier.VOLATILE;
 import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.Diagnostic.Kind.NOTE;
 
 import androidx.room.compiler.processing.XMessager;
 import com.google.auto.common.MoreElements;
@@ -49,25 +54,31 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.Sets;
+import com.google.common.graph.ImmutableNetwork;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 import dagger.internal.Preconditions;
 import dagger.internal.codegen.base.UniqueNameSet;
 import dagger.internal.codegen.binding.Binding;
 import dagger.internal.codegen.binding.BindingGraph;
 import dagger.internal.codegen.binding.BindingNode;
 import dagger.internal.codegen.binding.BindingRequest;
+import dagger.internal.codegen.binding.BindingType;
 import dagger.internal.codegen.binding.ComponentCreatorDescriptor;
 import dagger.internal.codegen.binding.ComponentCreatorKind;
 import dagger.internal.codegen.binding.ComponentDescriptor;
@@ -82,17 +93,22 @@ import dagger.internal.codegen.javapoet.TypeSpecs;
 import dagger.internal.codegen.kotlin.KotlinMetadataUtil;
 import dagger.internal.codegen.langmodel.DaggerElements;
 import dagger.internal.codegen.langmodel.DaggerTypes;
+import dagger.spi.model.BindingGraph.DependencyEdge;
+import dagger.spi.model.BindingGraph.Edge;
 import dagger.spi.model.BindingGraph.Node;
 import dagger.spi.model.Key;
 import dagger.spi.model.RequestKind;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.lang.model.element.ExecutableElement;
@@ -144,6 +160,9 @@ public final class ComponentImplementation {
     /** An implementation of a component interface method. */
     COMPONENT_METHOD,
 
+    /** A method that warms up the scoped bindings of a {@code @WarmUpScopedBindings} component. */
+    WARM_UP_METHOD,
+
     /** A private method that encapsulates members injection logic for a binding. */
     MEMBERS_INJECTION_METHOD,
 
@@ -179,6 +198,9 @@ public final class ComponentImplementation {
    * Returns the {@link ShardImplementation} for each binding in this graph.
    *
    * <p>Each shard contains approximately {@link CompilerOptions#keysPerComponentShard()} bindings.
+   * If {@link CompilerOptions#sizeAwareComponentSharding()} is enabled, a shard is also closed
+   * once its estimated constant pool size reaches {@link
+   * #MAX_ESTIMATED_CONSTANT_POOL_ENTRIES_PER_SHARD}.
    *
    * <p>If more than 1 shard is needed, we iterate the strongly connected nodes to make sure of two
    * things: 1) bindings are put in shards in reverse topological order (i.e., bindings in Shard{i}
@@ -199,25 +221,37 @@ public final class ComponentImplementation {
   private static ImmutableList<ImmutableList<Binding>> bindingPartitions(
       BindingGraph graph, CompilerOptions compilerOptions) {
     int bindingsPerShard = compilerOptions.keysPerComponentShard(graph.componentTypeElement());
+    boolean sizeAwareSharding =
+        compilerOptions.sizeAwareComponentSharding(graph.componentTypeElement());
     int maxPartitions = (graph.localBindingNodes().size() / bindingsPerShard) + 1;
-    if (maxPartitions <= 1) {
+    if (maxPartitions <= 1
+        && (!sizeAwareSharding
+            || estimatedConstantPoolEntries(
+                    graph.localBindingNodes().stream().map(BindingNode::delegate))
+                < MAX_ESTIMATED_CONSTANT_POOL_ENTRIES_PER_SHARD)) {
       return ImmutableList.of(
           graph.localBindingNodes().stream().map(BindingNode::delegate).collect(toImmutableList()));
     }
 
     // Iterate through all SCCs in order until all bindings local to this component are partitioned.
-    List<Binding> currPartition = new ArrayList<>(bindingsPerShard);
-    ImmutableList.Builder<ImmutableList<Binding>> partitions =
-        ImmutableList.builderWithExpectedSize(maxPartitions);
+    List<Binding> currPartition = new ArrayList<>();
+    ConstantPoolEstimate currPartitionEntries = new ConstantPoolEstimate();
+    ImmutableList.Builder<ImmutableList<Binding>> partitions = ImmutableList.builder();
     for (ImmutableSet<Node> nodes : graph.topLevelBindingGraph().stronglyConnectedNodes()) {
-      nodes.stream()
-          .flatMap(instancesOf(BindingNode.class))
-          .filter(bindingNode -> bindingNode.componentPath().equals(graph.componentPath()))
-          .map(BindingNode::delegate)
-          .forEach(currPartition::add);
-      if (currPartition.size() >= bindingsPerShard) {
+      ImmutableList<Binding> bindings =
+          nodes.stream()
+              .flatMap(instancesOf(BindingNode.class))
+              .filter(bindingNode -> bindingNode.componentPath().equals(graph.componentPath()))
+              .map(BindingNode::delegate)
+              .collect(toImmutableList());
+      currPartition.addAll(bindings);
+      bindings.forEach(currPartitionEntries::add);
+      if (currPartition.size() >= bindingsPerShard
+          || (sizeAwareSharding
+              && currPartitionEntries.entries() >= MAX_ESTIMATED_CONSTANT_POOL_ENTRIES_PER_SHARD)) {
         partitions.add(ImmutableList.copyOf(currPartition));
-        currPartition = new ArrayList<>(bindingsPerShard);
+        currPartition = new ArrayList<>();
+        currPartitionEntries = new ConstantPoolEstimate();
       }
     }
     if (!currPartition.isEmpty()) {
@@ -226,6 +260,79 @@ public final class ComponentImplementation {
     return partitions.build();
   }
 
+  /** Returns the {@link ConstantPoolEstimate} of the given bindings. */
+  private static int estimatedConstantPoolEntries(Stream<Binding> bindings) {
+    ConstantPoolEstimate estimate = new ConstantPoolEstimate();
+    bindings.forEach(estimate::add);
+    return estimate.entries();
+  }
+
+  /**
+   * A rough estimate of the constant pool entries that bindings add to the class they are generated
+   * in: each binding's field or method and the factory it uses, plus a reference for each distinct
+   * dependency key. Constant pool entries are deduplicated per class, so a dependency shared by
+   * several bindings of the class is only counted once.
+   */
+  private static final class ConstantPoolEstimate {
+    private final Set<Key> dependencyKeys = new HashSet<>();
+    private int bindings;
+
+    void add(Binding binding) {
+      bindings++;
+      binding.dependencies().forEach(dependency -> dependencyKeys.add(dependency.key()));
+    }
+
+    int entries() {
+      return ESTIMATED_CONSTANT_POOL_ENTRIES_PER_BINDING * bindings
+          + ESTIMATED_CONSTANT_POOL_ENTRIES_PER_DEPENDENCY * dependencyKeys.size();
+    }
+  }
+
+  /**
+   * Returns the scoped provision bindings owned by the given component grouped into waves, such
+   * that constructing a binding only requires instances of scoped bindings from earlier waves.
+   */
+  private static ImmutableList<ImmutableList<Binding>> scopedBindingWaves(BindingGraph graph) {
+    ImmutableNetwork<Node, Edge> network = graph.topLevelBindingGraph().network();
+    // The number of scoped bindings on the longest chain of instance requests below each node.
+    Map<Node, Integer> depths = new HashMap<>();
+    ListMultimap<Integer, Binding> bindingsByDepth =
+        MultimapBuilder.treeKeys().arrayListValues().build();
+    // The strongly connected nodes are in reverse topological order, so all of a node's
+    // dependencies are visited before it, except for those in the same cycle.
+    for (ImmutableSet<Node> nodes : graph.topLevelBindingGraph().stronglyConnectedNodes()) {
+      for (Node node : nodes) {
+        int depth = 0;
+        for (Edge edge : network.outEdges(node)) {
+          if (edge instanceof DependencyEdge
+              && ((DependencyEdge) edge).dependencyRequest().kind().equals(RequestKind.INSTANCE)) {
+            Node dependency = network.incidentNodes(edge).target();
+            depth =
+                Math.max(
+                    depth,
+                    depths.getOrDefault(dependency, 0)
+                        + (isWarmedUpBinding(graph, dependency) ? 1 : 0));
+          }
+        }
+        depths.put(node, depth);
+        if (isWarmedUpBinding(graph, node)) {
+          bindingsByDepth.put(depth, ((BindingNode) node).delegate());
+        }
+      }
+    }
+    return bindingsByDepth.asMap().values().stream()
+        .map(ImmutableList::copyOf)
+        .collect(toImmutableList());
+  }
+
+  private static boolean isWarmedUpBinding(BindingGraph graph, Node node) {
+    if (!(node instanceof BindingNode) || !node.componentPath().equals(graph.componentPath())) {
+      return false;
+    }
+    Binding binding = ((BindingNode) node).delegate();
+    return binding.scope().isPresent() && binding.bindingType().equals(BindingType.PROVISION);
+  }
+
   /** The boolean parameter of the onProducerFutureCancelled method. */
   public static final ParameterSpec MAY_INTERRUPT_IF_RUNNING_PARAM =
       ParameterSpec.builder(boolean.class, "mayInterruptIfRunning").build();
@@ -238,11 +345,55 @@ public final class ComponentImplementation {
    */
   private static final int STATEMENTS_PER_METHOD = 100;
 
+  /**
+   * The estimated bytecode size of an {@code initialize()} or {@code onProducerFutureCancelled()}
+   * method before it gets partitioned when size aware sharding is enabled. HotSpot doesn't compile
+   * methods larger than 8000 bytes, so this leaves headroom for errors in the estimate.
+   */
+  private static final int MAX_ESTIMATED_BYTES_PER_METHOD = 6000;
+
+  /**
+   * The estimated bytecode size of a statement that initializes a binding's field: loading the
+   * component, creating and possibly wrapping the framework instance, and storing it in the field.
+   */
+  private static final int ESTIMATED_BYTES_PER_INITIALIZATION = 20;
+
+  /**
+   * The estimated bytecode size of passing a dependency when initializing a binding's field, i.e.
+   * loading the component or shard and reading the dependency's field from it.
+   */
+  private static final int ESTIMATED_BYTES_PER_INITIALIZATION_DEPENDENCY = 7;
+
+  /**
+   * The estimated bytecode size of a statement that cancels a producer: reading the producer's
+   * field, loading the argument and invoking {@code Producers.cancel()}.
+   */
+  private static final int ESTIMATED_BYTES_PER_CANCELLATION = 10;
+
+  /**
+   * The estimated bytecode size of a statement that stores a scoped binding's provider in the
+   * array passed to {@code ParallelWarmUp}.
+   */
+  private static final int ESTIMATED_BYTES_PER_WARM_UP_ASSIGNMENT = 10;
+
+  /**
+   * The estimated number of constant pool entries in a shard before a new shard is started when
+   * size aware sharding is enabled. A class can have at most 65535 entries, so this leaves headroom
+   * for errors in the estimate and for the entries that don't come from the shard's bindings.
+   */
+  private static final int MAX_ESTIMATED_CONSTANT_POOL_ENTRIES_PER_SHARD = 20000;
+
+  private static final int ESTIMATED_CONSTANT_POOL_ENTRIES_PER_BINDING = 10;
+  private static final int ESTIMATED_CONSTANT_POOL_ENTRIES_PER_DEPENDENCY = 3;
+
   private final ShardImplementation componentShard;
   private final ImmutableMap<Binding, ShardImplementation> shardsByBinding;
   private final Map<ShardImplementation, FieldSpec> shardFieldsByImplementation = new HashMap<>();
+  private final Map<ShardImplementation, String> shardAccessorNamesByImplementation =
+      new HashMap<>();
   private final List<CodeBlock> shardInitializations = new ArrayList<>();
   private final List<CodeBlock> shardCancellations = new ArrayList<>();
+  private final List<ShardStatistics> shardStatistics = new ArrayList<>();
   private final Optional<ComponentImplementation> parent;
   private final ChildComponentImplementationFactory childComponentImplementationFactory;
   private final Provider<ComponentRequestRepresentations> bindingExpressionsProvider;
@@ -255,6 +406,9 @@ public final class ComponentImplementation {
   private final KotlinMetadataUtil metadataUtil;
   private final ImmutableMap<ComponentImplementation, FieldSpec> componentFieldsByImplementation;
   private final XMessager messager;
+  private final boolean lazyShardInitialization;
+  private final boolean sizeAwareSharding;
+  private final boolean lazyFrameworkFieldInitialization;
 
   @Inject
   ComponentImplementation(
@@ -296,6 +450,33 @@ public final class ComponentImplementation {
     this.componentFieldsByImplementation =
         createComponentFieldsByImplementation(this, compilerOptions);
     this.messager = messager;
+    this.lazyShardInitialization =
+        compilerOptions.lazyComponentShardInitialization(graph.componentTypeElement());
+    this.sizeAwareSharding =
+        compilerOptions.sizeAwareComponentSharding(graph.componentTypeElement());
+    this.lazyFrameworkFieldInitialization =
+        graph.componentDescriptor().isSubcomponent()
+            && compilerOptions.lazySubcomponentFrameworkFields(graph.componentTypeElement());
+  }
+
+  /** Reports the number of bindings and the estimated constant pool size of each shard. */
+  private void reportShardSizes() {
+    ImmutableSetMultimap<ShardImplementation, Binding> bindingsByShard =
+        shardsByBinding.asMultimap().inverse();
+    messager.printMessage(
+        NOTE,
+        String.format(
+            "%s shard sizes (bindings, estimated constant pool entries): %s",
+            name(),
+            bindingsByShard.asMap().entrySet().stream()
+                .map(
+                    entry ->
+                        String.format(
+                            "%s (%d, %d)",
+                            entry.getKey().name.simpleName(),
+                            entry.getValue().size(),
+                            estimatedConstantPoolEntries(entry.getValue().stream())))
+                .collect(joining(", "))));
   }
 
   /**
@@ -371,6 +552,14 @@ public final class ComponentImplementation {
     return componentShard;
   }
 
+  /**
+   * Returns true if the framework fields of this component's own shard should be created on first
+   * use rather than in the component's constructor.
+   */
+  boolean initializesFrameworkFieldsLazily() {
+    return lazyFrameworkFieldInitialization;
+  }
+
   /** Returns the binding graph for the component being generated. */
   public BindingGraph graph() {
     return componentShard.graph();
@@ -401,9 +590,22 @@ public final class ComponentImplementation {
 
   /** Generates the component and returns the resulting {@link TypeSpec}. */
   public TypeSpec generate() {
+    if (sizeAwareSharding) {
+      reportShardSizes();
+    }
     return componentShard.generate();
   }
 
+  /**
+   * Returns the statistics of each component and shard class generated for this component and its
+   * subcomponents, in the order they were generated. Only available on the root component, after
+   * {@link #generate()}.
+   */
+  public ImmutableList<ShardStatistics> shardStatistics() {
+    checkState(!parent.isPresent(), "Statistics are only recorded on the root component");
+    return ImmutableList.copyOf(shardStatistics);
+  }
+
   /**
    * The implementation of a shard.
    *
@@ -423,9 +625,12 @@ public final class ComponentImplementation {
     private final UniqueNameSet componentFieldNames = new UniqueNameSet();
     private final UniqueNameSet componentMethodNames = new UniqueNameSet();
     private final List<CodeBlock> initializations = new ArrayList<>();
+    private final List<Integer> estimatedInitializationSizes = new ArrayList<>();
     private final Map<Key, CodeBlock> cancellations = new LinkedHashMap<>();
     private final Map<VariableElement, String> uniqueAssistedName = new LinkedHashMap<>();
     private final List<CodeBlock> componentRequirementInitializations = new ArrayList<>();
+    private boolean constructorParametersInScope = true;
+    private int switchingProviderCases = 0;
     private final ImmutableMap<ComponentRequirement, ParameterSpec> constructorParameters;
     private final ListMultimap<FieldSpecKind, FieldSpec> fieldSpecsMap =
         MultimapBuilder.enumKeys(FieldSpecKind.class).arrayListValues().build();
@@ -484,15 +689,26 @@ public final class ComponentImplementation {
         // Add the shard if this is the first time it's requested by something.
         String shardFieldName =
             componentShard.getUniqueFieldName(UPPER_CAMEL.to(LOWER_CAMEL, name.simpleName()));
-        FieldSpec shardField = FieldSpec.builder(name, shardFieldName, PRIVATE).build();
+        FieldSpec.Builder shardField = FieldSpec.builder(name, shardFieldName, PRIVATE);
+        if (lazyShardInitialization) {
+          // The shard is created on first access through its accessor method, possibly from a
+          // different thread than the one that created the component, so it must be volatile.
+          shardField.addModifiers(VOLATILE);
+          shardAccessorNamesByImplementation.put(
+              this, componentShard.getUniqueMethodName(shardFieldName));
+        }
 
-        shardFieldsByImplementation.put(this, shardField);
+        shardFieldsByImplementation.put(this, shardField.build());
       }
       // TODO(bcorso): This currently relies on all requesting classes having a reference to the
       // component with the same name, which is kind of sketchy. Try to think of a better way that
       // can accomodate the component missing in some classes if it's not used.
-      return isComponentShard()
-          ? componentFieldReference()
+      if (isComponentShard()) {
+        return componentFieldReference();
+      }
+      return lazyShardInitialization
+          ? CodeBlock.of(
+              "$L.$N()", componentFieldReference(), shardAccessorNamesByImplementation.get(this))
           : CodeBlock.of("$L.$N", componentFieldReference(), shardFieldsByImplementation.get(this));
     }
 
@@ -543,6 +759,11 @@ public final class ComponentImplementation {
       typeSpecsMap.put(typeKind, typeSpec);
     }
 
+    /** Records the number of cases in a SwitchingProvider generated for this shard. */
+    void addSwitchingProviderCases(int cases) {
+      switchingProviderCases += cases;
+    }
+
     /** Adds a {@link Supplier} for the SwitchingProvider for the component. */
     void addTypeSupplier(Supplier<TypeSpec> typeSpecSupplier) {
       typeSuppliers.add(typeSpecSupplier);
@@ -550,7 +771,23 @@ public final class ComponentImplementation {
 
     /** Adds the given code block to the initialize methods of the component. */
     void addInitialization(CodeBlock codeBlock) {
+      addInitialization(codeBlock, ESTIMATED_BYTES_PER_INITIALIZATION);
+    }
+
+    /**
+     * Adds the given code block, which initializes the field of {@code binding}, to the initialize
+     * methods of the component.
+     */
+    void addInitialization(CodeBlock codeBlock, Binding binding) {
+      addInitialization(
+          codeBlock,
+          ESTIMATED_BYTES_PER_INITIALIZATION
+              + ESTIMATED_BYTES_PER_INITIALIZATION_DEPENDENCY * binding.dependencies().size());
+    }
+
+    private void addInitialization(CodeBlock codeBlock, int estimatedSize) {
       initializations.add(codeBlock);
+      estimatedInitializationSizes.add(estimatedSize);
     }
 
     /** Adds the given code block that initializes a {@link ComponentRequirement}. */
@@ -558,6 +795,29 @@ public final class ComponentImplementation {
       componentRequirementInitializations.add(codeBlock);
     }
 
+    /**
+     * Returns {@code true} if code generated for the {@code initialize()} methods may reference the
+     * component's constructor parameters, rather than the fields that store them.
+     */
+    boolean constructorParametersInScope() {
+      return constructorParametersInScope;
+    }
+
+    /**
+     * Returns the result of {@code codeSupplier}, generated for a method outside of the
+     * constructor so that component requirements are read from their fields instead of from the
+     * constructor parameters.
+     */
+    <T> T outsideConstructor(Supplier<T> codeSupplier) {
+      boolean previous = constructorParametersInScope;
+      constructorParametersInScope = false;
+      try {
+        return codeSupplier.get();
+      } finally {
+        constructorParametersInScope = previous;
+      }
+    }
+
     /**
      * Adds the given cancellation statement to the cancellation listener method of the component.
      */
@@ -623,6 +883,7 @@ public final class ComponentImplementation {
         addCreator();
         addFactoryMethods();
         addInterfaceMethods();
+        addWarmUpMethods();
         addChildComponents();
         addShards();
       }
@@ -642,7 +903,46 @@ public final class ComponentImplementation {
       methodSpecsMap.asMap().values().forEach(builder::addMethods);
       typeSpecsMap.asMap().values().forEach(builder::addTypes);
       typeSuppliers.stream().map(Supplier::get).forEach(builder::addType);
-      return builder.build();
+      TypeSpec typeSpec = builder.build();
+      recordStatistics();
+      releaseGeneratedState();
+      return typeSpec;
+    }
+
+    private void recordStatistics() {
+      ImmutableList<Binding> bindings =
+          shardsByBinding.entrySet().stream()
+              .filter(entry -> entry.getValue().equals(this))
+              .map(Map.Entry::getKey)
+              .collect(toImmutableList());
+      rootComponentImplementation()
+          .shardStatistics
+          .add(
+              ShardStatistics.create(
+                  name,
+                  isComponentShard(),
+                  bindings.size(),
+                  estimatedConstantPoolEntries(bindings.stream()),
+                  estimatedInitializationSizes.stream().mapToInt(Integer::intValue).sum(),
+                  switchingProviderCases));
+    }
+
+    /**
+     * Releases the state used to build this shard once its {@link TypeSpec} has been built.
+     *
+     * <p>The initialization and cancellation statements are copied when they are concatenated into
+     * methods, so holding on to them (and to the per-kind spec lists) would keep a second copy of
+     * every shard's statements alive until the whole component has been written.
+     */
+    private void releaseGeneratedState() {
+      initializations.clear();
+      estimatedInitializationSizes.clear();
+      cancellations.clear();
+      componentRequirementInitializations.clear();
+      fieldSpecsMap.clear();
+      methodSpecsMap.clear();
+      typeSpecsMap.clear();
+      typeSuppliers.clear();
     }
 
     private ImmutableSet<Modifier> modifiers() {
@@ -782,6 +1082,88 @@ public final class ComponentImplementation {
       }
     }
 
+    private void addWarmUpMethods() {
+      if (parent.isPresent()
+          || !isAnnotationPresent(
+              graph.componentTypeElement(), TypeNames.WARM_UP_SCOPED_BINDINGS)) {
+        return;
+      }
+      ParameterSpec executor = ParameterSpec.builder(TypeNames.EXECUTOR, "executor").build();
+      ParameterSpec providers =
+          ParameterSpec.builder(
+                  ArrayTypeName.of(
+                      ParameterizedTypeName.get(
+                          TypeNames.PROVIDER, WildcardTypeName.subtypeOf(Object.class))),
+                  "providers")
+              .build();
+
+      // Collect the providers of the scoped bindings wave by wave, and the index of the first
+      // provider of each wave.
+      List<CodeBlock> providerAssignments = new ArrayList<>();
+      List<CodeBlock> waveStarts = new ArrayList<>();
+      for (ImmutableList<Binding> wave : scopedBindingWaves(graph)) {
+        waveStarts.add(CodeBlock.of("$L", providerAssignments.size()));
+        for (Binding binding : wave) {
+          providerAssignments.add(
+              CodeBlock.of(
+                  "$N[$L] = $L;",
+                  providers,
+                  providerAssignments.size(),
+                  bindingExpressionsProvider
+                      .get()
+                      .getDependencyExpression(
+                          bindingRequest(binding.key(), RequestKind.PROVIDER), name)
+                      .codeBlock()));
+        }
+      }
+
+      claimMethodName("warmUpScopedBindings");
+      MethodSpec.Builder warmUpMethod =
+          methodBuilder(getUniqueMethodName("warmUpScopedBindingWaves"))
+              .addModifiers(PRIVATE)
+              .addParameter(executor)
+              .addException(InterruptedException.class)
+              .addStatement(
+                  "$T $N = new $T[$L]",
+                  providers.type,
+                  providers,
+                  ((ArrayTypeName) providers.type).componentType,
+                  providerAssignments.size());
+      // The assignments are partitioned like initialize() methods to stay within method limits.
+      ImmutableList<MethodSpec> providersMethods =
+          createPartitionedMethods(
+              "warmUpProviders",
+              ImmutableList.of(providers),
+              providerAssignments,
+              Collections.nCopies(
+                  providerAssignments.size(), ESTIMATED_BYTES_PER_WARM_UP_ASSIGNMENT),
+              MethodSpec::methodBuilder);
+      for (MethodSpec providersMethod : providersMethods) {
+        warmUpMethod.addStatement("$N($N)", providersMethod, providers);
+      }
+      warmUpMethod.addStatement(
+          "$T.warmUp($N, $N, new int[] {$L})",
+          TypeNames.PARALLEL_WARM_UP,
+          executor,
+          providers,
+          CodeBlock.join(waveStarts, ", "));
+      MethodSpec warmUpImplementation = warmUpMethod.build();
+
+      ParameterSpec component =
+          ParameterSpec.builder(ClassName.get(graph.componentTypeElement()), "component").build();
+      addMethod(
+          MethodSpecKind.WARM_UP_METHOD,
+          methodBuilder("warmUpScopedBindings")
+              .addModifiers(PUBLIC, STATIC)
+              .addParameter(component)
+              .addParameter(executor)
+              .addException(InterruptedException.class)
+              .addStatement("(($T) $N).$N($N)", name, component, warmUpImplementation, executor)
+              .build());
+      addMethod(MethodSpecKind.WARM_UP_METHOD, warmUpImplementation);
+      providersMethods.forEach(method -> addMethod(MethodSpecKind.WARM_UP_METHOD, method));
+    }
+
     private void addChildComponents() {
       for (BindingGraph subgraph : graph.subgraphs()) {
         rootComponentImplementation()
@@ -828,6 +1210,16 @@ public final class ComponentImplementation {
                   }
                 });
         constructor.addCode(CodeBlocks.concat(componentRequirementInitializations));
+        if (lazyShardInitialization && !shardFieldsByImplementation.isEmpty()) {
+          // Lazily created shards are constructed outside of the component's constructor, so keep
+          // the constructor parameters in fields (with the same names) for the shard accessors.
+          for (ParameterSpec parameter : parameters) {
+            addField(
+                FieldSpecKind.COMPONENT_REQUIREMENT_FIELD,
+                FieldSpec.builder(parameter.type, parameter.name, PRIVATE, FINAL).build());
+            constructor.addStatement("this.$1N = $1N", parameter);
+          }
+        }
       }
       constructor.addParameters(parameters);
 
@@ -850,6 +1242,7 @@ public final class ComponentImplementation {
               // SwitchingProvider with no parameters.
               makeFinal(parameters),
               initializations,
+              estimatedInitializationSizes,
               methodName ->
                   methodBuilder(methodName)
                       /* TODO(gak): Strictly speaking, we only need the suppression here if we are
@@ -870,12 +1263,43 @@ public final class ComponentImplementation {
         CodeBlock componentArgs =
             parameterNames(componentShard.constructorParameters.values().asList());
         FieldSpec shardField = shardFieldsByImplementation.get(this);
-        shardInitializations.add(CodeBlock.of("$N = new $T($L);", shardField, name, componentArgs));
+        if (lazyShardInitialization) {
+          componentShard.addMethod(
+              MethodSpecKind.PRIVATE_METHOD, lazyShardAccessor(shardField, componentArgs));
+        } else {
+          shardInitializations.add(
+              CodeBlock.of("$N = new $T($L);", shardField, name, componentArgs));
+        }
       }
 
       addMethod(MethodSpecKind.CONSTRUCTOR, constructor.build());
     }
 
+    /**
+     * Returns the method that creates this shard on first access, using double-checked locking on
+     * the component instance so that a shard that is never used is never created.
+     *
+     * <p>Shards only depend on shards earlier in the initialization order, so creating a shard can
+     * only create earlier shards, never itself.
+     */
+    private MethodSpec lazyShardAccessor(FieldSpec shardField, CodeBlock componentArgs) {
+      return methodBuilder(shardAccessorNamesByImplementation.get(this))
+          .addModifiers(PRIVATE)
+          .returns(name)
+          .addStatement("$T local = $N", name, shardField)
+          .beginControlFlow("if (local == null)")
+          .beginControlFlow("synchronized (this)")
+          .addStatement("local = $N", shardField)
+          .beginControlFlow("if (local == null)")
+          .addStatement("local = new $T($L)", name, componentArgs)
+          .addStatement("$N = local", shardField)
+          .endControlFlow()
+          .endControlFlow()
+          .endControlFlow()
+          .addStatement("return local")
+          .build();
+    }
+
     private void addCancellationListenerImplementation() {
       MethodSpec.Builder methodBuilder =
           methodBuilder(CANCELLATION_LISTENER_METHOD_NAME)
@@ -896,12 +1320,21 @@ public final class ComponentImplementation {
         methodBuilder.addCode(
             CodeBlocks.concat(ImmutableList.copyOf(shardCancellations).reverse()));
       } else if (!cancellations.isEmpty()) {
-        shardCancellations.add(
+        CodeBlock shardCancellation =
             CodeBlock.of(
                 "$N.$N($N);",
                 shardFieldsByImplementation.get(this),
                 CANCELLATION_LISTENER_METHOD_NAME,
-                MAY_INTERRUPT_IF_RUNNING_PARAM));
+                MAY_INTERRUPT_IF_RUNNING_PARAM);
+        // A lazily initialized shard that was never created has nothing to cancel.
+        shardCancellations.add(
+            lazyShardInitialization
+                ? CodeBlock.builder()
+                    .beginControlFlow("if ($N != null)", shardFieldsByImplementation.get(this))
+                    .add(shardCancellation)
+                    .endControlFlow()
+                    .build()
+                : shardCancellation);
       }
 
       ImmutableList<CodeBlock> cancellationStatements =
@@ -914,6 +1347,8 @@ public final class ComponentImplementation {
                 "cancelProducers",
                 ImmutableList.of(MAY_INTERRUPT_IF_RUNNING_PARAM),
                 cancellationStatements,
+                Collections.nCopies(
+                    cancellationStatements.size(), ESTIMATED_BYTES_PER_CANCELLATION),
                 methodName -> methodBuilder(methodName).addModifiers(PRIVATE));
         for (MethodSpec cancelProducersMethod : cancelProducersMethods) {
           methodBuilder.addStatement(
@@ -963,8 +1398,9 @@ public final class ComponentImplementation {
         String methodName,
         Iterable<ParameterSpec> parameters,
         List<CodeBlock> statements,
+        List<Integer> estimatedStatementSizes,
         Function<String, MethodSpec.Builder> methodBuilderCreator) {
-      return Lists.partition(statements, STATEMENTS_PER_METHOD).stream()
+      return partitionStatements(statements, estimatedStatementSizes).stream()
           .map(
               partition ->
                   methodBuilderCreator
@@ -977,6 +1413,43 @@ public final class ComponentImplementation {
     }
   }
 
+  /**
+   * Partitions the statements into groups of at most {@link #STATEMENTS_PER_METHOD}, and when size
+   * aware sharding is enabled, of at most {@link #MAX_ESTIMATED_BYTES_PER_METHOD} unless a single
+   * statement is larger.
+   *
+   * <p>The size of each statement is estimated from the binding it initializes rather than from
+   * its source, since the bytecode of a statement depends on what it references, not on how long
+   * the names of those references are.
+   */
+  private List<List<CodeBlock>> partitionStatements(
+      List<CodeBlock> statements, List<Integer> estimatedStatementSizes) {
+    if (!sizeAwareSharding) {
+      return Lists.partition(statements, STATEMENTS_PER_METHOD);
+    }
+    checkState(statements.size() == estimatedStatementSizes.size());
+    List<List<CodeBlock>> partitions = new ArrayList<>();
+    List<CodeBlock> currPartition = new ArrayList<>();
+    int currPartitionBytes = 0;
+    for (int i = 0; i < statements.size(); i++) {
+      CodeBlock statement = statements.get(i);
+      int statementBytes = estimatedStatementSizes.get(i);
+      if (!currPartition.isEmpty()
+          && (currPartition.size() >= STATEMENTS_PER_METHOD
+              || currPartitionBytes + statementBytes > MAX_ESTIMATED_BYTES_PER_METHOD)) {
+        partitions.add(currPartition);
+        currPartition = new ArrayList<>();
+        currPartitionBytes = 0;
+      }
+      currPartition.add(statement);
+      currPartitionBytes += statementBytes;
+    }
+    if (!currPartition.isEmpty()) {
+      partitions.add(currPartition);
+    }
+    return partitions;
+  }
+
   private static ImmutableList<ComponentRequirement> constructorRequirements(BindingGraph graph) {
     if (graph.componentDescriptor().hasCreator()) {
       return graph.componentRequirements().asList();
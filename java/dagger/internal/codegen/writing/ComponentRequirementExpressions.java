@@ -180,7 +180,8 @@ public final class ComponentRequirementExpressions {
 
     @Override
     public CodeBlock getExpressionDuringInitialization(ClassName requestingClass) {
-      if (componentShard.name().equals(requestingClass)) {
+      if (componentShard.name().equals(requestingClass)
+          && componentShard.constructorParametersInScope()) {
         return CodeBlock.of("$L", parameterName);
       } else {
         // requesting this component requirement during initialization of a child component requires
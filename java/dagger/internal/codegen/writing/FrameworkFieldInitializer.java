@@ -17,15 +17,19 @@
 package dagger.internal.codegen.writing;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
 import static dagger.internal.codegen.binding.SourceFiles.generatedClassNameForBinding;
 import static dagger.internal.codegen.javapoet.AnnotationSpecs.Suppression.RAWTYPES;
 import static dagger.internal.codegen.writing.ComponentImplementation.FieldSpecKind.FRAMEWORK_FIELD;
+import static dagger.internal.codegen.writing.ComponentImplementation.MethodSpecKind.PRIVATE_METHOD;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 import com.google.auto.common.MoreTypes;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import dagger.internal.DelegateFactory;
@@ -65,7 +69,9 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
   private final ShardImplementation shardImplementation;
   private final ContributionBinding binding;
   private final FrameworkInstanceCreationExpression frameworkInstanceCreationExpression;
+  private final boolean initializeLazily;
   private FieldSpec fieldSpec;
+  private String accessorName;
   private InitializationState fieldInitializationState = InitializationState.UNINITIALIZED;
 
   FrameworkFieldInitializer(
@@ -75,6 +81,11 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
     this.binding = checkNotNull(binding);
     this.shardImplementation = checkNotNull(componentImplementation).shardImplementation(binding);
     this.frameworkInstanceCreationExpression = checkNotNull(frameworkInstanceCreationExpression);
+    // Lazy fields lock on the component instance, so only the component's own shard uses them.
+    this.initializeLazily =
+        componentImplementation.initializesFrameworkFieldsLazily()
+            && shardImplementation.equals(componentImplementation.getComponentShard())
+            && isProvider();
   }
 
   /**
@@ -84,7 +95,9 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
   @Override
   public final MemberSelect memberSelect() {
     initializeField();
-    return MemberSelect.localField(shardImplementation, checkNotNull(fieldSpec).name);
+    return accessorName != null
+        ? MemberSelect.localMethod(shardImplementation, accessorName)
+        : MemberSelect.localField(shardImplementation, checkNotNull(fieldSpec).name);
   }
 
   /** Adds the field and its initialization code to the component. */
@@ -94,16 +107,27 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
         // Change our state in case we are recursively invoked via initializeRequestRepresentation
         fieldInitializationState = InitializationState.INITIALIZING;
         CodeBlock.Builder codeBuilder = CodeBlock.builder();
-        CodeBlock fieldInitialization = frameworkInstanceCreationExpression.creationExpression();
+        // A lazy accessor is a separate method, so it can't use the constructor's parameters.
+        CodeBlock fieldInitialization =
+            initializeLazily
+                ? shardImplementation.outsideConstructor(
+                    frameworkInstanceCreationExpression::creationExpression)
+                : frameworkInstanceCreationExpression.creationExpression();
         CodeBlock initCode = CodeBlock.of("this.$N = $L;", getOrCreateField(), fieldInitialization);
 
         if (fieldInitializationState == InitializationState.DELEGATED) {
+          // Fields in a dependency cycle are always initialized eagerly, since their delegate
+          // factory must exist before any of the other fields in the cycle are created.
           codeBuilder.add(
               "$T.setDelegate($N, $L);", delegateType(), fieldSpec, fieldInitialization);
+        } else if (initializeLazily) {
+          addLazyAccessor(fieldInitialization);
         } else {
           codeBuilder.add(initCode);
         }
-        shardImplementation.addInitialization(codeBuilder.build());
+        if (!codeBuilder.isEmpty()) {
+          shardImplementation.addInitialization(codeBuilder.build(), binding);
+        }
 
         fieldInitializationState = InitializationState.INITIALIZED;
         break;
@@ -154,6 +178,9 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
         FieldSpec.builder(
             fieldType, shardImplementation.getUniqueFieldName(contributionBindingField.name()));
     contributionField.addModifiers(PRIVATE);
+    if (initializeLazily) {
+      contributionField.addModifiers(VOLATILE);
+    }
     if (useRawType) {
       contributionField.addAnnotation(AnnotationSpecs.suppressWarnings(RAWTYPES));
     }
@@ -164,6 +191,34 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
     return fieldSpec;
   }
 
+  /**
+   * Adds a method that creates the framework instance on first use, using double-checked locking
+   * on the component instance so that it's created at most once. This keeps short-lived
+   * subcomponents from allocating framework instances (and {@code DoubleCheck}s for scoped
+   * bindings) that are never used.
+   */
+  private void addLazyAccessor(CodeBlock fieldInitialization) {
+    accessorName = shardImplementation.getUniqueMethodName(fieldSpec.name);
+    MethodSpec accessor =
+        methodBuilder(accessorName)
+            .addModifiers(PRIVATE)
+            .addAnnotations(fieldSpec.annotations)
+            .returns(fieldSpec.type)
+            .addStatement("$T local = $N", fieldSpec.type, fieldSpec)
+            .beginControlFlow("if (local == null)")
+            .beginControlFlow("synchronized (this)")
+            .addStatement("local = $N", fieldSpec)
+            .beginControlFlow("if (local == null)")
+            .addStatement("local = $L", fieldInitialization)
+            .addStatement("$N = local", fieldSpec)
+            .endControlFlow()
+            .endControlFlow()
+            .endControlFlow()
+            .addStatement("return local")
+            .build();
+    shardImplementation.addMethod(PRIVATE_METHOD, accessor);
+  }
+
   private Class<?> delegateType() {
     return isProvider() ? DelegateFactory.class : DelegateProducer.class;
   }
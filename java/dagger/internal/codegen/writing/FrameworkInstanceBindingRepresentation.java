@@ -29,6 +29,7 @@ import dagger.assisted.AssistedFactory;
 import dagger.assisted.AssistedInject;
 import dagger.internal.codegen.binding.BindingGraph;
 import dagger.internal.codegen.binding.BindingRequest;
+import dagger.internal.codegen.binding.ContributionBinding;
 import dagger.internal.codegen.binding.FrameworkType;
 import dagger.internal.codegen.binding.ProvisionBinding;
 import dagger.internal.codegen.compileroption.CompilerOptions;
@@ -256,6 +257,14 @@ final class FrameworkInstanceBindingRepresentation implements BindingRepresentat
   }
 
   private boolean useSwitchingProvider() {
+    return usesSwitchingProvider(binding, isFastInit);
+  }
+
+  /**
+   * Returns {@code true} if the framework instance of {@code binding} is a {@code
+   * SwitchingProvider} rather than one created from the binding's static factory.
+   */
+  static boolean usesSwitchingProvider(ContributionBinding binding, boolean isFastInit) {
     if (!isFastInit) {
       return false;
     }
@@ -204,14 +204,32 @@ final class InjectionMethods {
      */
     static boolean requiresInjectionMethod(
         ProvisionBinding binding, CompilerOptions compilerOptions, ClassName requestingClass) {
-      ExecutableElement method = MoreElements.asExecutable(binding.bindingElement().get());
       return !binding.injectionSites().isEmpty()
           || binding.shouldCheckForNull(compilerOptions)
-          || !isElementAccessibleFrom(method, requestingClass.packageName())
+          || !isInvocableFrom(binding, requestingClass);
+    }
+
+    /**
+     * Returns {@code true} if the constructor or method of {@code binding} can be invoked directly
+     * from {@code requestingClass}, even if its result still needs to be checked for null or have
+     * its members injected.
+     */
+    static boolean isInvocableFrom(ProvisionBinding binding, ClassName requestingClass) {
+      ExecutableElement method = MoreElements.asExecutable(binding.bindingElement().get());
+      return isElementAccessibleFrom(method, requestingClass.packageName())
           // This check should be removable once we drop support for -source 7
-          || method.getParameters().stream()
+          && method.getParameters().stream()
               .map(VariableElement::asType)
-              .anyMatch(type -> !isRawTypeAccessible(type, requestingClass.packageName()));
+              .allMatch(type -> isRawTypeAccessible(type, requestingClass.packageName()));
+    }
+
+    /**
+     * Returns {@code invocation}, a direct invocation of the method of {@code binding}, checked for
+     * null in the same way as the binding's injection method if necessary.
+     */
+    static CodeBlock checkForNull(
+        ProvisionBinding binding, CompilerOptions compilerOptions, CodeBlock invocation) {
+      return CheckNotNullPolicy.get(binding, compilerOptions).checkForNull(invocation);
     }
 
     /**
@@ -324,6 +342,91 @@ final class InjectionMethods {
           .collect(toConcatenatedCodeBlock());
     }
 
+    /**
+     * Like {@link #invokeAll}, but injects each of the {@code injectionSites} that is accessible
+     * from {@code generatedTypeName} directly rather than through its injection method, so that the
+     * members injector class of the member's type doesn't need to be loaded.
+     */
+    static CodeBlock inlineAll(
+        ImmutableSet<InjectionSite> injectionSites,
+        ClassName generatedTypeName,
+        CodeBlock instanceCodeBlock,
+        TypeMirror instanceType,
+        Function<DependencyRequest, CodeBlock> dependencyUsage,
+        DaggerTypes types,
+        KotlinMetadataUtil metadataUtil) {
+      return injectionSites.stream()
+          .map(
+              injectionSite ->
+                  canInline(injectionSite, generatedTypeName, instanceType, types, metadataUtil)
+                      ? inline(
+                          injectionSite, instanceCodeBlock, instanceType, dependencyUsage, types)
+                      : invokeAll(
+                          ImmutableSet.of(injectionSite),
+                          generatedTypeName,
+                          instanceCodeBlock,
+                          instanceType,
+                          dependencyUsage,
+                          types,
+                          metadataUtil))
+          .collect(toConcatenatedCodeBlock());
+    }
+
+    private static boolean canInline(
+        InjectionSite injectionSite,
+        ClassName generatedTypeName,
+        TypeMirror instanceType,
+        DaggerTypes types,
+        KotlinMetadataUtil metadataUtil) {
+      String packageName = generatedTypeName.packageName();
+      TypeElement enclosingType = asType(injectionSite.element().getEnclosingElement());
+      if (!enclosingType.getTypeParameters().isEmpty()
+          || metadataUtil.hasMetadata(enclosingType)
+          || !isRawTypeAccessible(enclosingType.asType(), packageName)
+          || !isElementAccessibleFrom(injectionSite.element(), packageName)
+          || !types.isSubtype(types.erasure(instanceType), types.erasure(enclosingType.asType()))) {
+        return false;
+      }
+      switch (injectionSite.kind()) {
+        case FIELD:
+          return isRawTypeAccessible(injectionSite.element().asType(), packageName);
+        case METHOD:
+          return asExecutable(injectionSite.element()).getParameters().stream()
+              .map(VariableElement::asType)
+              .allMatch(type -> isRawTypeAccessible(type, packageName));
+      }
+      throw new AssertionError(injectionSite);
+    }
+
+    private static CodeBlock inline(
+        InjectionSite injectionSite,
+        CodeBlock instanceCodeBlock,
+        TypeMirror instanceType,
+        Function<DependencyRequest, CodeBlock> dependencyUsage,
+        DaggerTypes types) {
+      TypeMirror enclosingType =
+          types.erasure(injectionSite.element().getEnclosingElement().asType());
+      // Cast to the type that declares the member, so that a field in a supertype is assigned even
+      // if a subtype declares a field with the same name.
+      CodeBlock instance =
+          types.isSameType(types.erasure(instanceType), enclosingType)
+              ? instanceCodeBlock
+              : CodeBlock.of("(($T) $L)", enclosingType, instanceCodeBlock);
+      CodeBlock arguments =
+          injectionSite.dependencies().stream()
+              .map(dependencyUsage)
+              .collect(toParametersCodeBlock());
+      switch (injectionSite.kind()) {
+        case FIELD:
+          return CodeBlock.of(
+              "$L.$N = $L;", instance, injectionSite.element().getSimpleName(), arguments);
+        case METHOD:
+          return CodeBlock.of(
+              "$L.$N($L);", instance, injectionSite.element().getSimpleName(), arguments);
+      }
+      throw new AssertionError(injectionSite);
+    }
+
     /**
      * Invokes the injection method for {@code injectionSite}, with the dependencies transformed
      * using the {@code dependencyUsage} function.
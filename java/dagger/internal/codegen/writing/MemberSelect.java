@@ -56,6 +56,33 @@ abstract class MemberSelect {
     }
   }
 
+  /**
+   * Returns a {@link MemberSelect} that calls the no-argument method given by {@code methodName}
+   * owned by {@code owningClass}. Like {@link #localField}, the returned {@link MemberSelect} is
+   * only valid from the type (or an enclosing type) that owns the method.
+   */
+  static MemberSelect localMethod(ShardImplementation owningShard, String methodName) {
+    return new LocalMethod(owningShard, methodName);
+  }
+
+  private static final class LocalMethod extends MemberSelect {
+    final ShardImplementation owningShard;
+    final String methodName;
+
+    LocalMethod(ShardImplementation owningShard, String methodName) {
+      super(owningShard.name(), false);
+      this.owningShard = owningShard;
+      this.methodName = checkNotNull(methodName);
+    }
+
+    @Override
+    CodeBlock getExpressionFor(ClassName usingClass) {
+      return owningClass().equals(usingClass)
+          ? CodeBlock.of("$N()", methodName)
+          : CodeBlock.of("$L.$N()", owningShard.shardFieldReference(), methodName);
+    }
+  }
+
   private final ClassName owningClass;
   private final boolean staticMember;
 
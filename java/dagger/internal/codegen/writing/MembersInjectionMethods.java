@@ -34,15 +34,18 @@ import dagger.internal.codegen.binding.BindingGraph;
 import dagger.internal.codegen.binding.MembersInjectionBinding;
 import dagger.internal.codegen.binding.MembersInjectionBinding.InjectionSite;
 import dagger.internal.codegen.binding.ProvisionBinding;
+import dagger.internal.codegen.compileroption.CompilerOptions;
 import dagger.internal.codegen.javapoet.Expression;
 import dagger.internal.codegen.kotlin.KotlinMetadataUtil;
 import dagger.internal.codegen.langmodel.DaggerElements;
 import dagger.internal.codegen.langmodel.DaggerTypes;
 import dagger.internal.codegen.writing.ComponentImplementation.ShardImplementation;
 import dagger.internal.codegen.writing.InjectionMethods.InjectionSiteMethod;
+import dagger.spi.model.DependencyRequest;
 import dagger.spi.model.Key;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Function;
 import javax.inject.Inject;
 import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
@@ -58,6 +61,7 @@ final class MembersInjectionMethods {
   private final DaggerElements elements;
   private final DaggerTypes types;
   private final KotlinMetadataUtil metadataUtil;
+  private final boolean inlineInjectionMethods;
 
   @Inject
   MembersInjectionMethods(
@@ -66,13 +70,20 @@ final class MembersInjectionMethods {
       BindingGraph graph,
       DaggerElements elements,
       DaggerTypes types,
-      KotlinMetadataUtil metadataUtil) {
+      KotlinMetadataUtil metadataUtil,
+      CompilerOptions compilerOptions) {
     this.componentImplementation = checkNotNull(componentImplementation);
     this.bindingExpressions = checkNotNull(bindingExpressions);
     this.graph = checkNotNull(graph);
     this.elements = checkNotNull(elements);
     this.types = checkNotNull(types);
     this.metadataUtil = metadataUtil;
+    this.inlineInjectionMethods =
+        compilerOptions.inlineInjectionMethods(
+            componentImplementation
+                .rootComponentImplementation()
+                .componentDescriptor()
+                .typeElement());
   }
 
   /**
@@ -123,18 +134,29 @@ final class MembersInjectionMethods {
       methodBuilder.addAnnotation(ClassName.get(canIgnoreReturnValue));
     }
     CodeBlock instance = CodeBlock.of("$N", parameter);
+    Function<DependencyRequest, CodeBlock> dependencyUsage =
+        request ->
+            bindingExpressions
+                .getDependencyArgumentExpression(request, shardImplementation.name())
+                .codeBlock();
     methodBuilder.addCode(
-        InjectionSiteMethod.invokeAll(
-            injectionSites(binding),
-            shardImplementation.name(),
-            instance,
-            membersInjectedType,
-            request ->
-                bindingExpressions
-                    .getDependencyArgumentExpression(request, shardImplementation.name())
-                    .codeBlock(),
-            types,
-            metadataUtil));
+        inlineInjectionMethods
+            ? InjectionSiteMethod.inlineAll(
+                injectionSites(binding),
+                shardImplementation.name(),
+                instance,
+                membersInjectedType,
+                dependencyUsage,
+                types,
+                metadataUtil)
+            : InjectionSiteMethod.invokeAll(
+                injectionSites(binding),
+                shardImplementation.name(),
+                instance,
+                membersInjectedType,
+                dependencyUsage,
+                types,
+                metadataUtil));
     methodBuilder.addStatement("return $L", instance);
 
     MethodSpec method = methodBuilder.build();
@@ -34,6 +34,7 @@ import static dagger.internal.codegen.javapoet.TypeNames.providerOf;
 import static dagger.internal.codegen.writing.ComponentImplementation.FieldSpecKind.ABSENT_OPTIONAL_FIELD;
 import static dagger.internal.codegen.writing.ComponentImplementation.MethodSpecKind.ABSENT_OPTIONAL_METHOD;
 import static dagger.internal.codegen.writing.ComponentImplementation.TypeSpecKind.PRESENT_FACTORY;
+import static dagger.internal.codegen.writing.ProvisionBindingRepresentation.needsCaching;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
@@ -57,13 +58,16 @@ import dagger.internal.InstanceFactory;
 import dagger.internal.Preconditions;
 import dagger.internal.codegen.base.OptionalType;
 import dagger.internal.codegen.base.OptionalType.OptionalKind;
+import dagger.internal.codegen.binding.BindingGraph;
 import dagger.internal.codegen.binding.BindingType;
 import dagger.internal.codegen.binding.ContributionBinding;
 import dagger.internal.codegen.binding.FrameworkType;
+import dagger.internal.codegen.binding.ProvisionBinding;
 import dagger.internal.codegen.javapoet.AnnotationSpecs;
 import dagger.internal.codegen.writing.ComponentImplementation.ShardImplementation;
 import dagger.producers.Producer;
 import dagger.producers.internal.Producers;
+import dagger.spi.model.DependencyRequest;
 import dagger.spi.model.RequestKind;
 import java.util.Comparator;
 import java.util.Map;
@@ -192,6 +196,37 @@ final class OptionalFactories {
         .build();
   }
 
+  /**
+   * Returns {@code true} if every {@code Optional} for the present optional provision {@code
+   * binding} wraps the same value, so that one {@code Optional} can be shared by all of its
+   * requests. That's the case when the optional's value is an instance of (or a {@code Lazy} for) a
+   * scoped binding, a bound instance, or a component.
+   */
+  static boolean hasStablePresentValue(ContributionBinding binding, BindingGraph graph) {
+    if (binding.dependencies().isEmpty()
+        || !binding.bindingType().equals(BindingType.PROVISION)) {
+      return false;
+    }
+    DependencyRequest dependency = getOnlyElement(binding.dependencies());
+    if (!dependency.kind().equals(RequestKind.INSTANCE)
+        && !dependency.kind().equals(RequestKind.LAZY)) {
+      return false;
+    }
+    ContributionBinding underlyingBinding = graph.contributionBinding(dependency.key());
+    switch (underlyingBinding.kind()) {
+      case BOUND_INSTANCE:
+      case COMPONENT:
+      case COMPONENT_DEPENDENCY:
+        return true;
+      default:
+        // A @Reusable binding's provider isn't a Lazy, so each Lazy for it is a new instance.
+        return underlyingBinding instanceof ProvisionBinding
+            && needsCaching((ProvisionBinding) underlyingBinding, graph)
+            && !(dependency.kind().equals(RequestKind.LAZY)
+                && underlyingBinding.scope().get().isReusable());
+    }
+  }
+
   /** Information about the type of a factory for present bindings. */
   @AutoValue
   abstract static class PresentFactorySpec {
@@ -18,11 +18,14 @@ package dagger.internal.codegen.writing;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static dagger.internal.codegen.binding.BindingRequest.bindingRequest;
+import static dagger.internal.codegen.writing.OptionalFactories.hasStablePresentValue;
 
 import com.squareup.javapoet.CodeBlock;
 import dagger.assisted.Assisted;
 import dagger.assisted.AssistedFactory;
 import dagger.assisted.AssistedInject;
+import dagger.internal.SingleCheck;
+import dagger.internal.codegen.binding.BindingGraph;
 import dagger.internal.codegen.binding.ContributionBinding;
 import dagger.internal.codegen.writing.FrameworkFieldInitializer.FrameworkInstanceCreationExpression;
 
@@ -36,24 +39,29 @@ final class OptionalFactoryInstanceCreationExpression
   private final ContributionBinding binding;
   private final ComponentImplementation componentImplementation;
   private final ComponentRequestRepresentations componentRequestRepresentations;
+  private final BindingGraph graph;
 
   @AssistedInject
   OptionalFactoryInstanceCreationExpression(
       @Assisted ContributionBinding binding,
       OptionalFactories optionalFactories,
       ComponentImplementation componentImplementation,
-      ComponentRequestRepresentations componentRequestRepresentations) {
+      ComponentRequestRepresentations componentRequestRepresentations,
+      BindingGraph graph) {
     this.optionalFactories = optionalFactories;
     this.binding = binding;
     this.componentImplementation = componentImplementation;
     this.componentRequestRepresentations = componentRequestRepresentations;
+    this.graph = graph;
   }
 
   @Override
   public CodeBlock creationExpression() {
-    return binding.dependencies().isEmpty()
-        ? optionalFactories.absentOptionalProvider(binding)
-        : optionalFactories.presentOptionalFactory(
+    if (binding.dependencies().isEmpty()) {
+      return optionalFactories.absentOptionalProvider(binding);
+    }
+    CodeBlock presentOptionalFactory =
+        optionalFactories.presentOptionalFactory(
             binding,
             componentRequestRepresentations
                 .getDependencyExpression(
@@ -61,6 +69,11 @@ final class OptionalFactoryInstanceCreationExpression
                         getOnlyElement(binding.dependencies()).key(), binding.frameworkType()),
                     componentImplementation.shardImplementation(binding).name())
                 .codeBlock());
+    // If every Optional wraps the same value, create it once instead of on every request. Racing
+    // threads can at worst create equal Optionals, so a single check is enough.
+    return hasStablePresentValue(binding, graph)
+        ? CodeBlock.of("$T.provider($L)", SingleCheck.class, presentOptionalFactory)
+        : presentOptionalFactory;
   }
 
   @AssistedFactory
@@ -92,6 +92,11 @@ final class ProvisionBindingRepresentation implements BindingRepresentation {
         // case in FastInit, but it hasn't been implemented yet. We also don't need to check for
         // caching since assisted bindings can't be scoped.
         return isFastInit;
+      case OPTIONAL:
+        // Present optionals that always wrap the same value are shared through their (cached)
+        // framework instance. In fastInit mode, that framework instance is a SwitchingProvider
+        // that delegates back to the direct instance, so always use a direct instance there.
+        return isFastInit || !OptionalFactories.hasStablePresentValue(binding, graph);
       default:
         // We don't need to use Provider#get() if there's no caching, so use a direct instance.
         // TODO(bcorso): This can be optimized in cases where we know a Provider field already
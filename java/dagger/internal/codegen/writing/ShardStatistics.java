@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.writing;
+
+import com.google.auto.value.AutoValue;
+import com.squareup.javapoet.ClassName;
+
+/** Statistics about a generated component or shard class, recorded when the class is generated. */
+@AutoValue
+public abstract class ShardStatistics {
+
+  static ShardStatistics create(
+      ClassName name,
+      boolean isComponentShard,
+      int bindings,
+      int estimatedConstantPoolEntries,
+      int estimatedInitializationBytes,
+      int switchingProviderCases) {
+    return new AutoValue_ShardStatistics(
+        name,
+        isComponentShard,
+        bindings,
+        estimatedConstantPoolEntries,
+        estimatedInitializationBytes,
+        switchingProviderCases);
+  }
+
+  /** The name of the component or shard class. */
+  public abstract ClassName name();
+
+  /** Returns {@code true} if the class is a component rather than one of its shards. */
+  public abstract boolean isComponentShard();
+
+  /** The number of bindings owned by the class. */
+  public abstract int bindings();
+
+  /** The estimated number of constant pool entries needed for the class's bindings. */
+  public abstract int estimatedConstantPoolEntries();
+
+  /** The estimated bytecode size of the class's {@code initialize()} methods. */
+  public abstract int estimatedInitializationBytes();
+
+  /** The number of cases in the class's {@code SwitchingProvider}s. */
+  public abstract int switchingProviderCases();
+}
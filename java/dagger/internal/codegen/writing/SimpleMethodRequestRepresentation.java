@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static dagger.internal.codegen.javapoet.CodeBlocks.makeParametersCodeBlock;
 import static dagger.internal.codegen.javapoet.TypeNames.rawTypeName;
 import static dagger.internal.codegen.langmodel.Accessibility.isTypeAccessibleFrom;
+import static dagger.internal.codegen.writing.InjectionMethods.ProvisionMethod.isInvocableFrom;
 import static dagger.internal.codegen.writing.InjectionMethods.ProvisionMethod.requiresInjectionMethod;
 
 import com.google.auto.common.MoreTypes;
@@ -59,6 +60,7 @@ final class SimpleMethodRequestRepresentation extends RequestRepresentation {
   private final SourceVersion sourceVersion;
   private final KotlinMetadataUtil metadataUtil;
   private final ShardImplementation shardImplementation;
+  private final boolean inlineInjectionMethods;
 
   @AssistedInject
   SimpleMethodRequestRepresentation(
@@ -82,13 +84,43 @@ final class SimpleMethodRequestRepresentation extends RequestRepresentation {
     this.componentRequirementExpressions = componentRequirementExpressions;
     this.sourceVersion = sourceVersion;
     this.shardImplementation = componentImplementation.shardImplementation(binding);
+    this.inlineInjectionMethods =
+        compilerOptions.inlineInjectionMethods(
+            componentImplementation
+                .rootComponentImplementation()
+                .componentDescriptor()
+                .typeElement());
   }
 
   @Override
   Expression getDependencyExpression(ClassName requestingClass) {
-    return requiresInjectionMethod(provisionBinding, compilerOptions, requestingClass)
-        ? invokeInjectionMethod(requestingClass)
-        : invokeMethod(requestingClass);
+    if (usesInjectionMethod(
+        provisionBinding, compilerOptions, inlineInjectionMethods, requestingClass)) {
+      return invokeInjectionMethod(requestingClass);
+    }
+    if (!requiresInjectionMethod(provisionBinding, compilerOptions, requestingClass)) {
+      return invokeMethod(requestingClass);
+    }
+    // Do the null check and members injection here rather than through the injection method, so
+    // that the binding's factory class doesn't need to be loaded.
+    return injectMembers(
+        ProvisionMethod.checkForNull(
+            provisionBinding, compilerOptions, invokeMethod(requestingClass).codeBlock()),
+        requestingClass);
+  }
+
+  /**
+   * Returns {@code true} if {@code requestingClass} gets an instance of {@code binding} by calling
+   * the injection method on the binding's factory class, rather than by invoking the binding's
+   * constructor or method itself.
+   */
+  static boolean usesInjectionMethod(
+      ProvisionBinding binding,
+      CompilerOptions compilerOptions,
+      boolean inlineInjectionMethods,
+      ClassName requestingClass) {
+    return requiresInjectionMethod(binding, compilerOptions, requestingClass)
+        && !(inlineInjectionMethods && isInvocableFrom(binding, requestingClass));
   }
 
   private Expression invokeMethod(ClassName requestingClass) {
@@ -170,6 +170,7 @@ final class SwitchingProviders {
     }
 
     private TypeSpec build() {
+      shardImplementation.addSwitchingProviderCases(switchCases.size());
       TypeSpec.Builder builder =
           classBuilder(switchingProviderType)
               .addModifiers(PRIVATE, FINAL, STATIC)
@@ -93,9 +93,9 @@ public abstract class Key {
   /** Returns a {@link Builder} that inherits the properties of this key. */
   public abstract Builder toBuilder();
 
-  // The main hashCode/equality bottleneck is in MoreTypes.equivalence(). It's possible that we can
-  // avoid this by tuning that method. Perhaps we can also avoid the issue entirely by interning all
-  // Keys
+  // The main hashCode/equality bottleneck is in MoreTypes.equivalence(). Unlike
+  // dagger.spi.model.Key, which Dagger's processor interns for each processing round, keys in this
+  // model are converted for external plugins and aren't interned, so equals() compares the types.
   @Memoized
   @Override
   public abstract int hashCode();
@@ -107,6 +107,25 @@ public final class DispatchingAndroidInjectorTest {
     }
   }
 
+  @Test
+  public void inject_suggestsSupertypeBindings() {
+    DispatchingAndroidInjector<Activity> dispatchingAndroidInjector =
+        newDispatchingAndroidInjector(
+            ImmutableMap.of(FooActivity.class, FooInjector.Factory::new),
+            ImmutableMap.of(BarActivity.class.getName(), BarInjector.Factory::new));
+    SubFooActivity activity = Robolectric.setupActivity(SubFooActivity.class);
+
+    try {
+      dispatchingAndroidInjector.inject(activity);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected)
+          .hasMessageThat()
+          .contains("bound for supertypes of " + SubFooActivity.class.getCanonicalName());
+      assertThat(expected).hasMessageThat().contains(FooActivity.class.getCanonicalName());
+    }
+  }
+
   private static <T> DispatchingAndroidInjector<T> newDispatchingAndroidInjector(
       Map<Class<?>, Provider<Factory<?>>> injectorFactoriesWithClassKeys,
       Map<String, Provider<AndroidInjector.Factory<?>>>
@@ -119,6 +138,8 @@ public final class DispatchingAndroidInjectorTest {
 
   static class BarActivity extends Activity {}
 
+  static class SubFooActivity extends FooActivity {}
+
   static class FooInjector implements AndroidInjector<FooActivity> {
     @Override
     public void inject(FooActivity instance) {}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.android;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.os.Build;
+import android.os.Bundle;
+import androidx.fragment.app.FragmentActivity;
+import androidx.lifecycle.SavedStateHandle;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import dagger.hilt.EntryPoint;
+import dagger.hilt.EntryPoints;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.components.ActivityComponent;
+import dagger.hilt.android.internal.builders.ViewModelComponentBuilder;
+import dagger.hilt.android.internal.lifecycle.HiltViewModelAccessor;
+import dagger.hilt.android.internal.lifecycle.HiltViewModelFactory;
+import dagger.hilt.android.internal.lifecycle.HiltViewModelMap;
+import dagger.hilt.android.lifecycle.HiltViewModel;
+import dagger.hilt.android.testing.BindValue;
+import dagger.hilt.android.testing.HiltAndroidRule;
+import dagger.hilt.android.testing.HiltAndroidTest;
+import dagger.hilt.android.testing.HiltTestApplication;
+import java.util.Collections;
+import java.util.Map;
+import javax.inject.Inject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@HiltAndroidTest
+@RunWith(AndroidJUnit4.class)
+// Robolectric requires Java9 to run API 29 and above, so use API 28 instead
+@Config(sdk = Build.VERSION_CODES.P, application = HiltTestApplication.class)
+public class HiltViewModelFactoryTest {
+
+  @Rule public final HiltAndroidRule rule = new HiltAndroidRule(this);
+
+  @BindValue String hiltStringValue = "hilt";
+
+  @EntryPoint
+  @InstallIn(ActivityComponent.class)
+  interface TestActivityEntryPoint {
+    @HiltViewModelMap.Accessors
+    Map<String, HiltViewModelAccessor> viewModelAccessors();
+
+    ViewModelComponentBuilder viewModelComponentBuilder();
+  }
+
+  @Test
+  public void accessors_containOnlyHiltViewModels() {
+    try (ActivityScenario<TestActivity> scenario = ActivityScenario.launch(TestActivity.class)) {
+      scenario.onActivity(
+          activity -> {
+            Map<String, HiltViewModelAccessor> accessors =
+                EntryPoints.get(activity, TestActivityEntryPoint.class).viewModelAccessors();
+            assertThat(accessors).containsKey(TestHiltViewModel.class.getName());
+            assertThat(accessors).doesNotContainKey(TestViewModel.class.getName());
+          });
+    }
+  }
+
+  @Test
+  public void accessorsFactory_createsHiltViewModelThroughAccessor() {
+    try (ActivityScenario<TestActivity> scenario = ActivityScenario.launch(TestActivity.class)) {
+      scenario.onActivity(
+          activity -> {
+            ViewModelProvider.Factory factory =
+                HiltViewModelFactory.createInternal(
+                    activity, activity, defaultArgs(), new TestViewModelFactory());
+            TestHiltViewModel viewModel =
+                new ViewModelProvider(activity, factory).get(TestHiltViewModel.class);
+            assertThat(viewModel.value).isEqualTo("hilt");
+            assertThat(viewModel.handle.<String>get("arg")).isEqualTo("value");
+            assertThat(new ViewModelProvider(activity, factory).get(TestViewModel.class).value)
+                .isEqualTo("non-hilt");
+          });
+    }
+  }
+
+  @Test
+  @SuppressWarnings("deprecation") // Tests the constructor kept for older generated code.
+  public void keySetFactory_createsHiltViewModelThroughAccessor() {
+    try (ActivityScenario<TestActivity> scenario = ActivityScenario.launch(TestActivity.class)) {
+      scenario.onActivity(
+          activity -> {
+            ViewModelProvider.Factory factory =
+                new HiltViewModelFactory(
+                    activity,
+                    defaultArgs(),
+                    Collections.singleton(TestHiltViewModel.class.getName()),
+                    new TestViewModelFactory(),
+                    EntryPoints.get(activity, TestActivityEntryPoint.class)
+                        .viewModelComponentBuilder());
+            TestHiltViewModel viewModel =
+                new ViewModelProvider(activity, factory).get(TestHiltViewModel.class);
+            assertThat(viewModel.value).isEqualTo("hilt");
+            assertThat(viewModel.handle.<String>get("arg")).isEqualTo("value");
+            assertThat(new ViewModelProvider(activity, factory).get(TestViewModel.class).value)
+                .isEqualTo("non-hilt");
+          });
+    }
+  }
+
+  private static Bundle defaultArgs() {
+    Bundle defaultArgs = new Bundle();
+    defaultArgs.putString("arg", "value");
+    return defaultArgs;
+  }
+
+  @HiltViewModel
+  public static final class TestHiltViewModel extends ViewModel {
+    final String value;
+    final SavedStateHandle handle;
+
+    @Inject
+    TestHiltViewModel(String value, SavedStateHandle handle) {
+      this.value = value;
+      this.handle = handle;
+    }
+  }
+
+  public static final class TestViewModel extends ViewModel {
+    final String value;
+    // Take in a string so it cannot be constructed by the default view model factory
+    public TestViewModel(String value) {
+      this.value = value;
+    }
+  }
+
+  private static final class TestViewModelFactory implements ViewModelProvider.Factory {
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends ViewModel> T create(Class<T> clazz) {
+      assertThat(clazz).isEqualTo(TestViewModel.class);
+      return (T) new TestViewModel("non-hilt");
+    }
+  }
+
+  @AndroidEntryPoint(FragmentActivity.class)
+  public static final class TestActivity extends Hilt_HiltViewModelFactoryTest_TestActivity {}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.android.internal.managers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ApplicationComponentManagerTest {
+
+  @Test
+  public void createComponentInBackground_createsComponentOnce() throws Exception {
+    Object component = new Object();
+    AtomicInteger creations = new AtomicInteger();
+    CountDownLatch creationStarted = new CountDownLatch(1);
+    ApplicationComponentManager manager =
+        new ApplicationComponentManager(
+            () -> {
+              creations.incrementAndGet();
+              creationStarted.countDown();
+              return component;
+            });
+
+    manager.createComponentInBackground();
+    assertThat(creationStarted.await(10, SECONDS)).isTrue();
+
+    assertThat(manager.generatedComponent()).isSameInstanceAs(component);
+    assertThat(manager.generatedComponent()).isSameInstanceAs(component);
+    assertThat(creations.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void createComponentInBackground_failureIsRethrownToCaller() throws Exception {
+    IllegalStateException failure = new IllegalStateException("Failed in background");
+    AtomicInteger creations = new AtomicInteger();
+    CountDownLatch creationStarted = new CountDownLatch(1);
+    ApplicationComponentManager manager =
+        new ApplicationComponentManager(
+            () -> {
+              creations.incrementAndGet();
+              creationStarted.countDown();
+              throw failure;
+            });
+
+    manager.createComponentInBackground();
+    assertThat(creationStarted.await(10, SECONDS)).isTrue();
+
+    IllegalStateException thrown =
+        assertThrows(IllegalStateException.class, manager::generatedComponent);
+    assertThat(thrown).hasCauseThat().isSameInstanceAs(failure);
+    thrown = assertThrows(IllegalStateException.class, manager::generatedComponent);
+    assertThat(thrown).hasCauseThat().isSameInstanceAs(failure);
+    assertThat(creations.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void createComponentInBackground_afterCreation_doesNothing() {
+    Object component = new Object();
+    AtomicInteger creations = new AtomicInteger();
+    ApplicationComponentManager manager =
+        new ApplicationComponentManager(
+            () -> {
+              creations.incrementAndGet();
+              return component;
+            });
+
+    assertThat(manager.generatedComponent()).isSameInstanceAs(component);
+    manager.createComponentInBackground();
+
+    assertThat(manager.generatedComponent()).isSameInstanceAs(component);
+    assertThat(creations.get()).isEqualTo(1);
+  }
+}
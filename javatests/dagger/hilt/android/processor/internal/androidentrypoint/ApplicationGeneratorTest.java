@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.android.processor.internal.androidentrypoint;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.hilt.android.testing.compile.HiltCompilerTests.compiler;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ApplicationGeneratorTest {
+
+  private static final JavaFileObject MY_APPLICATION =
+      JavaFileObjects.forSourceLines(
+          "test.MyApplication",
+          "package test;",
+          "",
+          "import android.app.Application;",
+          "import dagger.hilt.android.HiltAndroidApp;",
+          "",
+          "@HiltAndroidApp(Application.class)",
+          "public class MyApplication extends Hilt_MyApplication {}");
+
+  @Test
+  public void backgroundSingletonComponentCreation_attachBaseContextGenerated() {
+    Compilation compilation =
+        compiler()
+            .withOptions("-Adagger.hilt.android.useBackgroundSingletonComponentCreation=true")
+            .compile(MY_APPLICATION);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test/Hilt_MyApplication")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.Hilt_MyApplication",
+                "package test;",
+                "",
+                "import android.app.Application;",
+                "import android.content.Context;",
+                "import androidx.annotation.CallSuper;",
+                "",
+                "abstract class Hilt_MyApplication extends Application implements"
+                    + " GeneratedComponentManagerHolder {",
+                "  @CallSuper",
+                "  @Override",
+                "  protected void attachBaseContext(Context base) {",
+                "    super.attachBaseContext(base);",
+                "    componentManager.createComponentInBackground();",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  public void defaultOptions_attachBaseContextNotGenerated() {
+    Compilation compilation = compiler().compile(MY_APPLICATION);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test/Hilt_MyApplication")
+        .contentsAsUtf8String()
+        .doesNotContain("attachBaseContext");
+  }
+}
@@ -50,9 +50,12 @@ class ViewModelGeneratorTest {
         import dagger.Binds;
         import dagger.Module;
         import dagger.Provides;
+        import dagger.hilt.EntryPoint;
+        import dagger.hilt.EntryPoints;
         import dagger.hilt.InstallIn;
         import dagger.hilt.android.components.ActivityRetainedComponent;
         import dagger.hilt.android.components.ViewModelComponent;
+        import dagger.hilt.android.internal.lifecycle.HiltViewModelAccessor;
         import dagger.hilt.android.internal.lifecycle.HiltViewModelMap;
         import dagger.hilt.codegen.OriginatingElement;
         import dagger.multibindings.IntoMap;
@@ -79,6 +82,17 @@ class ViewModelGeneratorTest {
             @StringKey("dagger.hilt.android.test.MyViewModel")
             @HiltViewModelMap
             public abstract ViewModel binds(MyViewModel vm);
+
+            @Binds
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            public abstract ViewModel bindsKeyed(MyViewModel vm);
+          }
+
+          @EntryPoint
+          @InstallIn(ViewModelComponent.class)
+          public interface ViewModelEntryPoint {
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            ViewModel dagger_hilt_android_test_MyViewModel();
           }
 
           @Module
@@ -93,6 +107,20 @@ class ViewModelGeneratorTest {
             public static String provide() {
               return "dagger.hilt.android.test.MyViewModel";
             }
+
+            @Provides
+            @IntoMap
+            @StringKey("dagger.hilt.android.test.MyViewModel")
+            @HiltViewModelMap.Accessors
+            public static HiltViewModelAccessor provideAccessor() {
+              return new HiltViewModelAccessor() {
+                @Override
+                public ViewModel get(ViewModelComponent viewModelComponent) {
+                  return EntryPoints.get(viewModelComponent, ViewModelEntryPoint.class)
+                      .dagger_hilt_android_test_MyViewModel();
+                }
+              };
+            }
           }
         }
         """.toJFO("dagger.hilt.android.test.MyViewModel_HiltModule")
@@ -130,9 +158,12 @@ class ViewModelGeneratorTest {
         import dagger.Binds;
         import dagger.Module;
         import dagger.Provides;
+        import dagger.hilt.EntryPoint;
+        import dagger.hilt.EntryPoints;
         import dagger.hilt.InstallIn;
         import dagger.hilt.android.components.ActivityRetainedComponent;
         import dagger.hilt.android.components.ViewModelComponent;
+        import dagger.hilt.android.internal.lifecycle.HiltViewModelAccessor;
         import dagger.hilt.android.internal.lifecycle.HiltViewModelMap;
         import dagger.hilt.codegen.OriginatingElement;
         import dagger.multibindings.IntoMap;
@@ -159,6 +190,17 @@ class ViewModelGeneratorTest {
             @StringKey("dagger.hilt.android.test.MyViewModel")
             @HiltViewModelMap
             public abstract ViewModel binds(MyViewModel vm);
+
+            @Binds
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            public abstract ViewModel bindsKeyed(MyViewModel vm);
+          }
+
+          @EntryPoint
+          @InstallIn(ViewModelComponent.class)
+          public interface ViewModelEntryPoint {
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            ViewModel dagger_hilt_android_test_MyViewModel();
           }
 
           @Module
@@ -173,6 +215,20 @@ class ViewModelGeneratorTest {
             public static String provide() {
               return "dagger.hilt.android.test.MyViewModel";
             }
+
+            @Provides
+            @IntoMap
+            @StringKey("dagger.hilt.android.test.MyViewModel")
+            @HiltViewModelMap.Accessors
+            public static HiltViewModelAccessor provideAccessor() {
+              return new HiltViewModelAccessor() {
+                @Override
+                public ViewModel get(ViewModelComponent viewModelComponent) {
+                  return EntryPoints.get(viewModelComponent, ViewModelEntryPoint.class)
+                      .dagger_hilt_android_test_MyViewModel();
+                }
+              };
+            }
           }
         }
         """.toJFO("dagger.hilt.android.test.MyViewModel_HiltModule")
@@ -217,9 +273,12 @@ class ViewModelGeneratorTest {
         import dagger.Binds;
         import dagger.Module;
         import dagger.Provides;
+        import dagger.hilt.EntryPoint;
+        import dagger.hilt.EntryPoints;
         import dagger.hilt.InstallIn;
         import dagger.hilt.android.components.ActivityRetainedComponent;
         import dagger.hilt.android.components.ViewModelComponent;
+        import dagger.hilt.android.internal.lifecycle.HiltViewModelAccessor;
         import dagger.hilt.android.internal.lifecycle.HiltViewModelMap;
         import dagger.hilt.codegen.OriginatingElement;
         import dagger.multibindings.IntoMap;
@@ -246,6 +305,17 @@ class ViewModelGeneratorTest {
             @StringKey("dagger.hilt.android.test.MyViewModel")
             @HiltViewModelMap
             public abstract ViewModel binds(MyViewModel vm);
+
+            @Binds
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            public abstract ViewModel bindsKeyed(MyViewModel vm);
+          }
+
+          @EntryPoint
+          @InstallIn(ViewModelComponent.class)
+          public interface ViewModelEntryPoint {
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            ViewModel dagger_hilt_android_test_MyViewModel();
           }
 
           @Module
@@ -260,6 +330,20 @@ class ViewModelGeneratorTest {
             public static String provide() {
               return "dagger.hilt.android.test.MyViewModel";
             }
+
+            @Provides
+            @IntoMap
+            @StringKey("dagger.hilt.android.test.MyViewModel")
+            @HiltViewModelMap.Accessors
+            public static HiltViewModelAccessor provideAccessor() {
+              return new HiltViewModelAccessor() {
+                @Override
+                public ViewModel get(ViewModelComponent viewModelComponent) {
+                  return EntryPoints.get(viewModelComponent, ViewModelEntryPoint.class)
+                      .dagger_hilt_android_test_MyViewModel();
+                }
+              };
+            }
           }
         }
         """.toJFO("dagger.hilt.android.test.MyViewModel_HiltModule")
@@ -305,9 +389,12 @@ class ViewModelGeneratorTest {
         import dagger.Binds;
         import dagger.Module;
         import dagger.Provides;
+        import dagger.hilt.EntryPoint;
+        import dagger.hilt.EntryPoints;
         import dagger.hilt.InstallIn;
         import dagger.hilt.android.components.ActivityRetainedComponent;
         import dagger.hilt.android.components.ViewModelComponent;
+        import dagger.hilt.android.internal.lifecycle.HiltViewModelAccessor;
         import dagger.hilt.android.internal.lifecycle.HiltViewModelMap;
         import dagger.hilt.codegen.OriginatingElement;
         import dagger.multibindings.IntoMap;
@@ -334,6 +421,17 @@ class ViewModelGeneratorTest {
             @StringKey("dagger.hilt.android.test.MyViewModel")
             @HiltViewModelMap
             public abstract ViewModel binds(MyViewModel vm);
+
+            @Binds
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            public abstract ViewModel bindsKeyed(MyViewModel vm);
+          }
+
+          @EntryPoint
+          @InstallIn(ViewModelComponent.class)
+          public interface ViewModelEntryPoint {
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            ViewModel dagger_hilt_android_test_MyViewModel();
           }
 
           @Module
@@ -348,6 +446,20 @@ class ViewModelGeneratorTest {
             public static String provide() {
               return "dagger.hilt.android.test.MyViewModel";
             }
+
+            @Provides
+            @IntoMap
+            @StringKey("dagger.hilt.android.test.MyViewModel")
+            @HiltViewModelMap.Accessors
+            public static HiltViewModelAccessor provideAccessor() {
+              return new HiltViewModelAccessor() {
+                @Override
+                public ViewModel get(ViewModelComponent viewModelComponent) {
+                  return EntryPoints.get(viewModelComponent, ViewModelEntryPoint.class)
+                      .dagger_hilt_android_test_MyViewModel();
+                }
+              };
+            }
           }
         }
         """.toJFO("dagger.hilt.android.test.MyViewModel_HiltModules")
@@ -400,9 +512,12 @@ class ViewModelGeneratorTest {
         import dagger.Binds;
         import dagger.Module;
         import dagger.Provides;
+        import dagger.hilt.EntryPoint;
+        import dagger.hilt.EntryPoints;
         import dagger.hilt.InstallIn;
         import dagger.hilt.android.components.ActivityRetainedComponent;
         import dagger.hilt.android.components.ViewModelComponent;
+        import dagger.hilt.android.internal.lifecycle.HiltViewModelAccessor;
         import dagger.hilt.android.internal.lifecycle.HiltViewModelMap;
         import dagger.hilt.codegen.OriginatingElement;
         import dagger.multibindings.IntoMap;
@@ -429,6 +544,17 @@ class ViewModelGeneratorTest {
             @StringKey("dagger.hilt.android.test.MyViewModel")
             @HiltViewModelMap
             public abstract ViewModel binds(MyViewModel vm);
+
+            @Binds
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            public abstract ViewModel bindsKeyed(MyViewModel vm);
+          }
+
+          @EntryPoint
+          @InstallIn(ViewModelComponent.class)
+          public interface ViewModelEntryPoint {
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.MyViewModel")
+            ViewModel dagger_hilt_android_test_MyViewModel();
           }
 
           @Module
@@ -443,6 +569,20 @@ class ViewModelGeneratorTest {
             public static String provide() {
               return "dagger.hilt.android.test.MyViewModel";
             }
+
+            @Provides
+            @IntoMap
+            @StringKey("dagger.hilt.android.test.MyViewModel")
+            @HiltViewModelMap.Accessors
+            public static HiltViewModelAccessor provideAccessor() {
+              return new HiltViewModelAccessor() {
+                @Override
+                public ViewModel get(ViewModelComponent viewModelComponent) {
+                  return EntryPoints.get(viewModelComponent, ViewModelEntryPoint.class)
+                      .dagger_hilt_android_test_MyViewModel();
+                }
+              };
+            }
           }
         }
         """.toJFO("dagger.hilt.android.test.MyViewModel_HiltModules")
@@ -481,9 +621,12 @@ class ViewModelGeneratorTest {
         import dagger.Binds;
         import dagger.Module;
         import dagger.Provides;
+        import dagger.hilt.EntryPoint;
+        import dagger.hilt.EntryPoints;
         import dagger.hilt.InstallIn;
         import dagger.hilt.android.components.ActivityRetainedComponent;
         import dagger.hilt.android.components.ViewModelComponent;
+        import dagger.hilt.android.internal.lifecycle.HiltViewModelAccessor;
         import dagger.hilt.android.internal.lifecycle.HiltViewModelMap;
         import dagger.hilt.codegen.OriginatingElement;
         import dagger.multibindings.IntoMap;
@@ -510,6 +653,17 @@ class ViewModelGeneratorTest {
             @StringKey("dagger.hilt.android.test.Outer${'$'}InnerViewModel")
             @HiltViewModelMap
             public abstract ViewModel binds(Outer.InnerViewModel vm);
+
+            @Binds
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.Outer${'$'}InnerViewModel")
+            public abstract ViewModel bindsKeyed(Outer.InnerViewModel vm);
+          }
+
+          @EntryPoint
+          @InstallIn(ViewModelComponent.class)
+          public interface ViewModelEntryPoint {
+            @HiltViewModelMap.Keyed("dagger.hilt.android.test.Outer${'$'}InnerViewModel")
+            ViewModel dagger_hilt_android_test_Outer${'$'}InnerViewModel();
           }
 
           @Module
@@ -524,6 +678,20 @@ class ViewModelGeneratorTest {
             public static String provide() {
               return "dagger.hilt.android.test.Outer${'$'}InnerViewModel";
             }
+
+            @Provides
+            @IntoMap
+            @StringKey("dagger.hilt.android.test.Outer${'$'}InnerViewModel")
+            @HiltViewModelMap.Accessors
+            public static HiltViewModelAccessor provideAccessor() {
+              return new HiltViewModelAccessor() {
+                @Override
+                public ViewModel get(ViewModelComponent viewModelComponent) {
+                  return EntryPoints.get(viewModelComponent, ViewModelEntryPoint.class)
+                      .dagger_hilt_android_test_Outer${'$'}InnerViewModel();
+                }
+              };
+            }
           }
         }
         """.toJFO("dagger.hilt.android.test.Outer_InnerViewModel_HiltModules")
@@ -536,4 +704,47 @@ class ViewModelGeneratorTest {
         .hasSourceEquivalentTo(expectedModule)
     }
   }
+
+  @Test
+  fun verifyEntryPointMethodNamesAreDistinct() {
+    // Both names would map to "dagger_hilt_android_test_a_b_MyViewModel" if '_' were not escaped.
+    val packagedViewModel = """
+        package dagger.hilt.android.test.a_b;
+
+        import dagger.hilt.android.lifecycle.HiltViewModel;
+        import androidx.lifecycle.ViewModel;
+        import javax.inject.Inject;
+
+        @HiltViewModel
+        class MyViewModel extends ViewModel {
+            @Inject
+            MyViewModel() { }
+        }
+        """.toJFO("dagger.hilt.android.test.a_b.MyViewModel")
+    val prefixedViewModel = """
+        package dagger.hilt.android.test.a;
+
+        import dagger.hilt.android.lifecycle.HiltViewModel;
+        import androidx.lifecycle.ViewModel;
+        import javax.inject.Inject;
+
+        @HiltViewModel
+        class b_MyViewModel extends ViewModel {
+            @Inject
+            b_MyViewModel() { }
+        }
+        """.toJFO("dagger.hilt.android.test.a.b_MyViewModel")
+
+    val compilation = compiler()
+      .compile(packagedViewModel, prefixedViewModel)
+    assertThat(compilation).apply {
+      succeeded()
+      generatedSourceFile("dagger.hilt.android.test.a_b.MyViewModel_HiltModules")
+        .contentsAsUtf8String()
+        .contains("ViewModel dagger_hilt_android_test_a_1b_MyViewModel();")
+      generatedSourceFile("dagger.hilt.android.test.a.b_MyViewModel_HiltModules")
+        .contentsAsUtf8String()
+        .contains("ViewModel dagger_hilt_android_test_a_b_1MyViewModel();")
+    }
+  }
 }
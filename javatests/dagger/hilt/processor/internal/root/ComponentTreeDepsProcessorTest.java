@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.processor.internal.root;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.hilt.android.testing.compile.HiltCompilerTests.compiler;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ComponentTreeDepsProcessorTest {
+  private static final JavaFileObject MY_TEST =
+      JavaFileObjects.forSourceLines(
+          "test.MyTest",
+          "package test;",
+          "",
+          "import dagger.hilt.android.testing.HiltAndroidTest;",
+          "",
+          "@HiltAndroidTest",
+          "public class MyTest {}");
+
+  @Test
+  public void testRootsInOneRound_haveTheirOwnUninstalledModules() {
+    Compilation compilation =
+        compiler()
+            .withOptions("-Adagger.hilt.shareTestComponents=false")
+            .compile(
+                module("ModuleA"),
+                module("ModuleB"),
+                testUninstallingModule("Test1", "ModuleA"),
+                testUninstallingModule("Test2", "ModuleB"));
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test/Test1_HiltComponents")
+        .contentsAsUtf8String()
+        .doesNotContain("ModuleA.class");
+    assertThat(compilation)
+        .generatedSourceFile("test/Test1_HiltComponents")
+        .contentsAsUtf8String()
+        .contains("ModuleB.class");
+    assertThat(compilation)
+        .generatedSourceFile("test/Test2_HiltComponents")
+        .contentsAsUtf8String()
+        .contains("ModuleA.class");
+    assertThat(compilation)
+        .generatedSourceFile("test/Test2_HiltComponents")
+        .contentsAsUtf8String()
+        .doesNotContain("ModuleB.class");
+  }
+
+  @Test
+  public void testReportRootProcessingTime() {
+    Compilation compilation =
+        compiler().withOptions("-Adagger.hilt.reportRootProcessingTime=true").compile(MY_TEST);
+    assertThat(compilation).succeeded();
+    assertThat(compilation).hadNoteContaining("Hilt processed [test.MyTest] in ");
+  }
+
+  @Test
+  public void testReportRootProcessingTime_disabledByDefault() {
+    Compilation compilation = compiler().compile(MY_TEST);
+    assertThat(compilation).succeeded();
+    for (Diagnostic<? extends JavaFileObject> note : compilation.notes()) {
+      assertThat(note.getMessage(null)).doesNotContain("Hilt processed");
+    }
+  }
+
+  private static JavaFileObject module(String name) {
+    return JavaFileObjects.forSourceLines(
+        "test." + name,
+        "package test;",
+        "",
+        "import dagger.Module;",
+        "import dagger.hilt.InstallIn;",
+        "import dagger.hilt.components.SingletonComponent;",
+        "",
+        "@Module",
+        "@InstallIn(SingletonComponent.class)",
+        "interface " + name + " {}");
+  }
+
+  private static JavaFileObject testUninstallingModule(String name, String uninstalledModule) {
+    return JavaFileObjects.forSourceLines(
+        "test." + name,
+        "package test;",
+        "",
+        "import dagger.hilt.android.testing.HiltAndroidTest;",
+        "import dagger.hilt.android.testing.UninstallModules;",
+        "",
+        "@UninstallModules(" + uninstalledModule + ".class)",
+        "@HiltAndroidTest",
+        "public class " + name + " {}");
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.hilt.processor.internal.root;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.hilt.android.testing.compile.HiltCompilerTests.compiler;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class StartupProfileGeneratorTest {
+  private static final Joiner JOINER = Joiner.on("\n");
+
+  private static final JavaFileObject APP =
+      JavaFileObjects.forSourceLines(
+          "test.TestApplication",
+          "package test;",
+          "",
+          "import android.app.Application;",
+          "import dagger.hilt.android.HiltAndroidApp;",
+          "",
+          "@HiltAndroidApp(Application.class)",
+          "public class TestApplication extends Hilt_TestApplication {}");
+
+  @Test
+  public void testStartupProfile() {
+    Compilation compilation =
+        compiler()
+            .withOptions("-Adagger.hilt.android.generateStartupProfile=true")
+            .compile(
+                APP,
+                entryPoint("SingletonComponent", "EntryPoint1"),
+                entryPoint("ActivityComponent", "EntryPoint2"),
+                entryPoint("FragmentComponent", "EntryPoint3"));
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedFile(
+            StandardLocation.SOURCE_OUTPUT, "test", "TestApplication_HiltStartupProfile.txt")
+        .contentsAsUtf8String()
+        .contains(
+            JOINER.join(
+                "# Startup profile generated by Hilt for test.TestApplication",
+                "Ltest/Hilt_TestApplication;",
+                "HSPLtest/Hilt_TestApplication;->**(**)**",
+                "Ltest/TestApplication_HiltComponents;",
+                "HSPLtest/TestApplication_HiltComponents;->**(**)**",
+                "Ltest/DaggerTestApplication_HiltComponents_SingletonC;",
+                "HSPLtest/DaggerTestApplication_HiltComponents_SingletonC;->**(**)**",
+                "Ltest/DaggerTestApplication_HiltComponents_SingletonC$Builder;",
+                "HSPLtest/DaggerTestApplication_HiltComponents_SingletonC$Builder;->**(**)**"));
+    assertThat(compilation)
+        .generatedFile(
+            StandardLocation.SOURCE_OUTPUT, "test", "TestApplication_HiltStartupProfile.txt")
+        .contentsAsUtf8String()
+        .contains(
+            JOINER.join(
+                "Ltest/TestApplication_HiltComponents$ActivityC;",
+                "HSPLtest/TestApplication_HiltComponents$ActivityC;->**(**)**",
+                "Ltest/TestApplication_HiltComponents$ActivityC$*;",
+                "HSPLtest/TestApplication_HiltComponents$ActivityC$*;->**(**)**",
+                "Ltest/DaggerTestApplication_HiltComponents_SingletonC$ActivityCImpl;",
+                "HSPLtest/DaggerTestApplication_HiltComponents_SingletonC$ActivityCImpl;->**(**)**",
+                "Ltest/DaggerTestApplication_HiltComponents_SingletonC$ActivityCImpl$*;",
+                "HSPLtest/DaggerTestApplication_HiltComponents_SingletonC$ActivityCImpl$*;"
+                    + "->**(**)**",
+                "Ltest/DaggerTestApplication_HiltComponents_SingletonC$ActivityCBuilder;",
+                "HSPLtest/DaggerTestApplication_HiltComponents_SingletonC$ActivityCBuilder;"
+                    + "->**(**)**"));
+    assertThat(compilation)
+        .generatedFile(
+            StandardLocation.SOURCE_OUTPUT, "test", "TestApplication_HiltStartupProfile.txt")
+        .contentsAsUtf8String()
+        .contains("\nLtest/EntryPoint1;\nHSPLtest/EntryPoint1;->**(**)**\n");
+    assertThat(compilation)
+        .generatedFile(
+            StandardLocation.SOURCE_OUTPUT, "test", "TestApplication_HiltStartupProfile.txt")
+        .contentsAsUtf8String()
+        .contains("\nLtest/EntryPoint2;\nHSPLtest/EntryPoint2;->**(**)**\n");
+    // Classes of the components below the ActivityComponent are not part of the profile.
+    assertThat(compilation)
+        .generatedFile(
+            StandardLocation.SOURCE_OUTPUT, "test", "TestApplication_HiltStartupProfile.txt")
+        .contentsAsUtf8String()
+        .doesNotContain("EntryPoint3");
+    assertThat(compilation)
+        .generatedFile(
+            StandardLocation.SOURCE_OUTPUT, "test", "TestApplication_HiltStartupProfile.txt")
+        .contentsAsUtf8String()
+        .doesNotContain("FragmentC");
+  }
+
+  @Test
+  public void testStartupProfile_injectedTypes() {
+    JavaFileObject app =
+        JavaFileObjects.forSourceLines(
+            "test.TestApplication",
+            "package test;",
+            "",
+            "import android.app.Application;",
+            "import dagger.hilt.android.HiltAndroidApp;",
+            "import javax.inject.Inject;",
+            "",
+            "@HiltAndroidApp(Application.class)",
+            "public class TestApplication extends Hilt_TestApplication {",
+            "  @Inject Foo foo;",
+            "}");
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "public class Foo {",
+            "  @Inject Foo(Provider<Bar> bar) {}",
+            "}");
+    JavaFileObject bar =
+        JavaFileObjects.forSourceLines(
+            "test.Bar",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "public class Bar {",
+            "  @Inject Bar() {}",
+            "",
+            "  @Inject void init() {}",
+            "}");
+    Compilation compilation =
+        compiler()
+            .withOptions("-Adagger.hilt.android.generateStartupProfile=true")
+            .compile(app, foo, bar);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedFile(
+            StandardLocation.SOURCE_OUTPUT, "test", "TestApplication_HiltStartupProfile.txt")
+        .contentsAsUtf8String()
+        .contains(
+            JOINER.join(
+                "Ltest/Foo_Factory;",
+                "HSPLtest/Foo_Factory;->**(**)**",
+                "Ltest/Bar_Factory;",
+                "HSPLtest/Bar_Factory;->**(**)**",
+                "Ltest/Bar_MembersInjector;",
+                "HSPLtest/Bar_MembersInjector;->**(**)**",
+                "Ltest/TestApplication_MembersInjector;",
+                "HSPLtest/TestApplication_MembersInjector;->**(**)**"));
+  }
+
+  @Test
+  public void testStartupProfileDisabledByDefault() {
+    Compilation compilation = compiler().compile(APP);
+    assertThat(compilation).succeeded();
+    assertThat(
+            compilation.generatedFiles().stream()
+                .noneMatch(file -> file.getName().endsWith("_HiltStartupProfile.txt")))
+        .isTrue();
+  }
+
+  private static JavaFileObject entryPoint(String component, String name) {
+    return JavaFileObjects.forSourceLines(
+        "test." + name,
+        "package test;",
+        "",
+        "import dagger.hilt.EntryPoint;",
+        "import dagger.hilt.InstallIn;",
+        component.equals("SingletonComponent") ? "import dagger.hilt.components.SingletonComponent;"
+            : "import dagger.hilt.android.components." + component + ";",
+        "",
+        "@EntryPoint",
+        "@InstallIn(" + component + ".class)",
+        "public interface " + name + " {}");
+  }
+}
@@ -72,6 +72,14 @@ public class DoubleCheckTest {
         .isSameInstanceAs(DOUBLE_CHECK_OBJECT_PROVIDER);
   }
 
+  @Test
+  public void providerOfLazy_doesNotWrap() {
+    Provider<Lazy<Object>> providerOfLazy = ProviderOfLazy.create(DOUBLE_CHECK_OBJECT_PROVIDER);
+    assertThat(providerOfLazy.get()).isSameInstanceAs(DOUBLE_CHECK_OBJECT_PROVIDER);
+    assertThat(ProviderOfLazy.create(DOUBLE_CHECK_OBJECT_PROVIDER))
+        .isSameInstanceAs(providerOfLazy);
+  }
+
   @Test
   public void get() throws Exception {
     int numThreads = 10;
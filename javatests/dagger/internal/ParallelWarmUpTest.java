@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Provider;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ParallelWarmUpTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void shutDownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void nextWaveStartsAfterPreviousWaveFinished() throws Exception {
+    CountDownLatch firstWaveStarted = new CountDownLatch(3);
+    CountDownLatch releaseFirstWave = new CountDownLatch(1);
+    AtomicInteger firstWaveFinished = new AtomicInteger();
+    AtomicInteger firstWaveFinishedWhenSecondWaveStarted = new AtomicInteger(-1);
+    Provider<Object> firstWaveProvider =
+        () -> {
+          firstWaveStarted.countDown();
+          awaitUninterruptibly(releaseFirstWave);
+          firstWaveFinished.incrementAndGet();
+          return new Object();
+        };
+    Provider<Object> secondWaveProvider =
+        () -> {
+          firstWaveFinishedWhenSecondWaveStarted.set(firstWaveFinished.get());
+          return new Object();
+        };
+    Thread warmUp =
+        startWarmUp(
+            new Provider<?>[] {
+              firstWaveProvider, firstWaveProvider, firstWaveProvider, secondWaveProvider
+            },
+            new int[] {0, 3},
+            new AtomicReference<>());
+
+    // The whole first wave runs concurrently, while the second wave waits for it.
+    assertThat(firstWaveStarted.await(10, SECONDS)).isTrue();
+    assertThat(firstWaveFinishedWhenSecondWaveStarted.get()).isEqualTo(-1);
+
+    releaseFirstWave.countDown();
+    warmUp.join(SECONDS.toMillis(10));
+    assertThat(warmUp.isAlive()).isFalse();
+    assertThat(firstWaveFinishedWhenSecondWaveStarted.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void firstFailureIsRethrown() throws Exception {
+    Exception cause = new Exception("cause");
+    RuntimeException firstFailure = new IllegalStateException("first", cause);
+    RuntimeException secondFailure = new IllegalStateException("second");
+    // Gets the providers in order on the calling thread, so that the first failure is known.
+    try {
+      ParallelWarmUp.warmUp(
+          Runnable::run,
+          new Provider<?>[] {throwingProvider(firstFailure), throwingProvider(secondFailure)},
+          new int[] {0});
+      fail();
+    } catch (IllegalStateException expected) {
+      assertThat(expected).isSameInstanceAs(firstFailure);
+      assertThat(expected).hasCauseThat().isSameInstanceAs(cause);
+    }
+  }
+
+  @Test
+  public void laterWavesSkippedAfterFailure() throws Exception {
+    RuntimeException failure = new IllegalStateException("failure");
+    AtomicBoolean laterWaveStarted = new AtomicBoolean();
+    Provider<Object> laterWaveProvider =
+        () -> {
+          laterWaveStarted.set(true);
+          return new Object();
+        };
+    AtomicReference<Throwable> thrown = new AtomicReference<>();
+    Thread warmUp =
+        startWarmUp(
+            new Provider<?>[] {
+              throwingProvider(failure), () -> new Object(), laterWaveProvider, laterWaveProvider
+            },
+            new int[] {0, 2, 3},
+            thrown);
+
+    warmUp.join(SECONDS.toMillis(10));
+    assertThat(warmUp.isAlive()).isFalse();
+    assertThat(thrown.get()).isSameInstanceAs(failure);
+    assertThat(laterWaveStarted.get()).isFalse();
+  }
+
+  /** Starts warming up the providers on a new thread, recording any failure in {@code thrown}. */
+  private Thread startWarmUp(
+      Provider<?>[] providers, int[] waveStarts, AtomicReference<Throwable> thrown) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                ParallelWarmUp.warmUp(executor, providers, waveStarts);
+              } catch (Throwable t) {
+                thrown.set(t);
+              }
+            });
+    thread.start();
+    return thread;
+  }
+
+  private static Provider<Object> throwingProvider(RuntimeException failure) {
+    return () -> {
+      throw failure;
+    };
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+import static java.util.regex.Pattern.MULTILINE;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ComponentClassListTest {
+  private static final String CLASS_LIST =
+      "META-INF/dagger/classlists/test/DaggerTestComponent.classlist";
+
+  private static final JavaFileObject FOO =
+      JavaFileObjects.forSourceLines(
+          "test.Foo",
+          "package test;",
+          "",
+          "import javax.inject.Inject;",
+          "import javax.inject.Singleton;",
+          "",
+          "@Singleton",
+          "final class Foo {",
+          "  @Inject Foo() {}",
+          "}");
+
+  private static final JavaFileObject COMPONENT =
+      JavaFileObjects.forSourceLines(
+          "test.TestComponent",
+          "package test;",
+          "",
+          "import dagger.Component;",
+          "import javax.inject.Singleton;",
+          "",
+          "@Singleton",
+          "@Component",
+          "interface TestComponent {",
+          "  Foo foo();",
+          "}");
+
+  @Test
+  public void classListGenerated() {
+    Compilation compilation =
+        compilerWithOptions("-Adagger.generateComponentClassLists=enabled")
+            .compile(FOO, COMPONENT);
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedFile(CLASS_OUTPUT, CLASS_LIST)
+        .contentsAsUtf8String()
+        .startsWith("test/DaggerTestComponent\n");
+    assertThat(compilation)
+        .generatedFile(CLASS_OUTPUT, CLASS_LIST)
+        .contentsAsUtf8String()
+        .contains("test/DaggerTestComponent$Builder\n");
+    assertThat(compilation)
+        .generatedFile(CLASS_OUTPUT, CLASS_LIST)
+        .contentsAsUtf8String()
+        .contains("dagger/internal/DoubleCheck\n");
+    assertThat(compilation)
+        .generatedFile(CLASS_OUTPUT, CLASS_LIST)
+        .contentsAsUtf8String()
+        .contains("test/Foo_Factory\n");
+    assertThat(compilation)
+        .generatedFile(CLASS_OUTPUT, CLASS_LIST)
+        .contentsAsUtf8String()
+        .contains("test/Foo\n");
+    // Annotations aren't loaded by the component.
+    assertThat(compilation)
+        .generatedFile(CLASS_OUTPUT, CLASS_LIST)
+        .contentsAsUtf8String()
+        .doesNotContain("Override");
+  }
+
+  @Test
+  public void classListContainsReferencedClasses_defaultMode() throws IOException {
+    List<String> classList = classListContainingReferencedClasses(CompilerMode.DEFAULT_MODE);
+    assertThat(classList).contains("dagger/internal/DelegateFactory");
+    assertThat(classList).contains("dagger/internal/SetFactory");
+    assertThat(classList).contains("dagger/internal/MapFactory");
+  }
+
+  @Test
+  public void classListContainsReferencedClasses_fastInitMode() throws IOException {
+    List<String> classList = classListContainingReferencedClasses(CompilerMode.FAST_INIT_MODE);
+    // Dep is created directly by the SwitchingProvider, so its factory isn't loaded.
+    assertThat(classList).doesNotContain("test/Dep_Factory");
+  }
+
+  /**
+   * Compiles a component that uses most kinds of bindings and checks that its class list contains
+   * every generated and runtime class that the component's source refers to.
+   */
+  private static List<String> classListContainingReferencedClasses(CompilerMode compilerMode)
+      throws IOException {
+    JavaFileObject hidden =
+        JavaFileObjects.forSourceLines(
+            "other.Hidden",
+            "package other;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "public final class Hidden {",
+            "  @Inject Hidden() {}",
+            "}");
+    JavaFileObject dep =
+        JavaFileObjects.forSourceLines(
+            "test.Dep",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Dep {",
+            "  @Inject Dep() {}",
+            "}");
+    JavaFileObject injected =
+        JavaFileObjects.forSourceLines(
+            "test.Injected",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Injected {",
+            "  @Inject Dep dep;",
+            "",
+            "  @Inject Injected() {}",
+            "}");
+    JavaFileObject cycleA =
+        JavaFileObjects.forSourceLines(
+            "test.CycleA",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "final class CycleA {",
+            "  @Inject CycleA(Provider<CycleB> cycleB) {}",
+            "}");
+    JavaFileObject cycleB =
+        JavaFileObjects.forSourceLines(
+            "test.CycleB",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class CycleB {",
+            "  @Inject CycleB(CycleA cycleA) {}",
+            "}");
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.BindsOptionalOf;",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.multibindings.IntoMap;",
+            "import dagger.multibindings.IntoSet;",
+            "import dagger.multibindings.StringKey;",
+            "",
+            "@Module",
+            "abstract class TestModule {",
+            "  @Provides @IntoSet static String string() { return \"a\"; }",
+            "",
+            "  @Provides @IntoMap @StringKey(\"a\") static Integer integer() { return 1; }",
+            "",
+            "  @BindsOptionalOf abstract Long optionalLong();",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.BindsInstance;",
+            "import dagger.Component;",
+            "import dagger.Lazy;",
+            "import java.util.Map;",
+            "import java.util.Optional;",
+            "import java.util.Set;",
+            "import javax.inject.Provider;",
+            "import other.Hidden;",
+            "",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Hidden hidden();",
+            "  Injected injected();",
+            "  CycleB cycleB();",
+            "  Provider<Set<String>> strings();",
+            "  Provider<Map<String, Integer>> integers();",
+            "  Map<String, Provider<Integer>> integerProviders();",
+            "  Provider<Optional<Long>> optionalLong();",
+            "  Lazy<Dep> lazyDep();",
+            "  Provider<Lazy<Dep>> providerOfLazyDep();",
+            "  Provider<Character> character();",
+            "",
+            "  @Component.Factory",
+            "  interface Factory {",
+            "    TestComponent create(@BindsInstance Character character);",
+            "  }",
+            "}");
+    Compilation compilation =
+        compilerWithOptions(
+                ImmutableList.<String>builder()
+                    .addAll(compilerMode.javacopts())
+                    .add("-Adagger.generateComponentClassLists=enabled")
+                    .build())
+            .compile(hidden, dep, injected, cycleA, cycleB, module, component);
+    assertThat(compilation).succeeded();
+
+    String componentSource =
+        compilation
+            .generatedSourceFile("test.DaggerTestComponent")
+            .get()
+            .getCharContent(false)
+            .toString();
+    List<String> classList =
+        Splitter.on('\n')
+            .omitEmptyStrings()
+            .splitToList(
+                compilation
+                    .generatedFile(CLASS_OUTPUT, CLASS_LIST)
+                    .get()
+                    .getCharContent(false)
+                    .toString());
+    Set<String> referencedClasses = referencedClasses(componentSource);
+    assertThat(referencedClasses)
+        .containsAtLeast(
+            "other/Hidden_Factory",
+            "test/Injected_MembersInjector",
+            "dagger/internal/DoubleCheck",
+            "dagger/internal/ProviderOfLazy",
+            "dagger/internal/InstanceFactory",
+            "dagger/internal/Preconditions");
+    assertThat(classList).containsAtLeastElementsIn(referencedClasses);
+    return classList;
+  }
+
+  /**
+   * Returns the internal names of the Dagger runtime classes and of the generated factories and
+   * members injectors that {@code componentSource} refers to.
+   */
+  private static Set<String> referencedClasses(String componentSource) {
+    Map<String, String> importedPackages = new HashMap<>();
+    Matcher imports =
+        Pattern.compile("^import ([\\w.]+)\\.(\\w+);$", MULTILINE).matcher(componentSource);
+    while (imports.find()) {
+      importedPackages.put(imports.group(2), imports.group(1));
+    }
+
+    Set<String> referencedClasses = new HashSet<>();
+    Matcher runtimeClasses =
+        Pattern.compile("\\bdagger\\.internal\\.([A-Z]\\w*)").matcher(componentSource);
+    while (runtimeClasses.find()) {
+      referencedClasses.add("dagger/internal/" + runtimeClasses.group(1));
+    }
+    // The @DaggerGenerated annotation isn't loaded when the component is.
+    referencedClasses.remove("dagger/internal/DaggerGenerated");
+
+    Matcher generatedClasses =
+        Pattern.compile("\\b(\\w+_\\w*(?:Factory|MembersInjector))\\b").matcher(componentSource);
+    while (generatedClasses.find()) {
+      String simpleName = generatedClasses.group(1);
+      String packageName = importedPackages.getOrDefault(simpleName, "test");
+      referencedClasses.add(packageName.replace('.', '/') + "/" + simpleName);
+    }
+    return referencedClasses;
+  }
+
+  @Test
+  public void disabledByDefault() {
+    Compilation compilation = daggerCompiler().compile(FOO, COMPONENT);
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(
+            compilation.generatedFiles().stream()
+                .anyMatch(file -> file.getName().endsWith(".classlist")))
+        .isFalse();
+  }
+}
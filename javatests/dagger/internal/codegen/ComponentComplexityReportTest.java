@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+import com.google.common.truth.StringSubject;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ComponentComplexityReportTest {
+  @Test
+  public void reportGenerated() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Foo {",
+            "  @Inject Foo(Bar bar) {}",
+            "}");
+    JavaFileObject bar =
+        JavaFileObjects.forSourceLines(
+            "test.Bar",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Bar {",
+            "  @Inject Bar() {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface TestComponent {",
+            "  Foo foo();",
+            "}");
+
+    Compilation compilation =
+        compilerWithOptions("-Adagger.generateComponentComplexityReports=enabled")
+            .compile(foo, bar, component);
+    assertThat(compilation).succeededWithoutWarnings();
+    StringSubject report =
+        assertThat(compilation)
+            .generatedFile(CLASS_OUTPUT, "META-INF/dagger/reports/test/DaggerTestComponent.json")
+            .contentsAsUtf8String();
+    report.contains("\"component\": \"test.DaggerTestComponent\"");
+    report.contains("\"shards\": 0");
+    report.contains("{\"name\": \"test.DaggerTestComponent\", \"fields\": ");
+    report.contains("\"estimatedConstantPoolEntries\": ");
+    report.contains("\"estimatedInitializationBytes\": ");
+    report.contains("{\"name\": \"test.DaggerTestComponent.Builder\", \"fields\": ");
+    report.contains("\"doubleCheckBindings\": 1");
+    report.contains(
+        String.join(
+            "\n",
+            "  \"longestDependencyChain\": [",
+            "    \"test.Foo\",",
+            "    \"test.Bar\"",
+            "  ]"));
+  }
+}
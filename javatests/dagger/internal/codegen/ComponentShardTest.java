@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static dagger.internal.codegen.CompilerMode.DEFAULT_MODE;
 import static dagger.internal.codegen.CompilerMode.FAST_INIT_MODE;
@@ -28,6 +29,8 @@ import com.google.common.collect.ImmutableSet;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.Compiler;
 import com.google.testing.compile.JavaFileObjects;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import javax.tools.JavaFileObject;
 import org.junit.Test;
@@ -316,6 +319,221 @@ public class ComponentShardTest {
                 .build());
   }
 
+  @Test
+  public void testLazyShardInitialization() {
+    // Add all bindings.
+    //
+    //     1 -> 2 -> 3
+    //
+    ImmutableList.Builder<JavaFileObject> javaFileObjects = ImmutableList.builder();
+    javaFileObjects
+        // Shard 2: Bindings (1)
+        .add(createBinding("Binding1", "Binding2 binding2"))
+        // Shard 1: Bindings (2)
+        .add(createBinding("Binding2", "Binding3 binding3"))
+        // Component shard: Bindings (3)
+        .add(createBinding("Binding3"));
+
+    javaFileObjects.add(
+        JavaFileObjects.forSourceLines(
+            "dagger.internal.codegen.TestComponent",
+            "package dagger.internal.codegen;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface TestComponent {",
+            "  Binding1 binding1();",
+            "}"));
+
+    Compilation compilation =
+        compiler("-Adagger.lazyComponentShardInitialization=enabled")
+            .compile(javaFileObjects.build());
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("dagger.internal.codegen.DaggerTestComponent")
+        .containsElementsIn(
+            compilerMode
+                .javaFileBuilder("dagger.internal.codegen.DaggerTestComponent")
+                .addLines(
+                    "package dagger.internal.codegen;",
+                    "",
+                    GeneratedLines.generatedAnnotations(),
+                    "final class DaggerTestComponent implements TestComponent {",
+                    "  private volatile Shard1 shard1;",
+                    "  private volatile Shard2 shard2;",
+                    "",
+                    "  private DaggerTestComponent() {",
+                    "    initialize();",
+                    "  }",
+                    "",
+                    "  private Shard1 shard1() {",
+                    "    Shard1 local = shard1;",
+                    "    if (local == null) {",
+                    "      synchronized (this) {",
+                    "        local = shard1;",
+                    "        if (local == null) {",
+                    "          local = new Shard1();",
+                    "          shard1 = local;",
+                    "        }",
+                    "      }",
+                    "    }",
+                    "    return local;",
+                    "  }",
+                    "",
+                    "  private Shard2 shard2() {",
+                    "    Shard2 local = shard2;",
+                    "    if (local == null) {",
+                    "      synchronized (this) {",
+                    "        local = shard2;",
+                    "        if (local == null) {",
+                    "          local = new Shard2();",
+                    "          shard2 = local;",
+                    "        }",
+                    "      }",
+                    "    }",
+                    "    return local;",
+                    "  }",
+                    "",
+                    "  @Override",
+                    "  public Binding1 binding1() {",
+                    "    return testComponent.shard2().binding1Provider.get();",
+                    "  }",
+                    "}")
+                .build());
+  }
+
+  @Test
+  public void testSizeAwareShardingReportsShardSizes() {
+    ImmutableList.Builder<JavaFileObject> javaFileObjects = ImmutableList.builder();
+    javaFileObjects
+        .add(createBinding("Binding1", "Binding2 binding2"))
+        .add(createBinding("Binding2", "Binding3 binding3"))
+        .add(createBinding("Binding3"));
+
+    javaFileObjects.add(
+        JavaFileObjects.forSourceLines(
+            "dagger.internal.codegen.TestComponent",
+            "package dagger.internal.codegen;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface TestComponent {",
+            "  Binding1 binding1();",
+            "}"));
+
+    Compilation compilation =
+        compiler("-Adagger.sizeAwareComponentSharding=enabled").compile(javaFileObjects.build());
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .hadNoteContaining(
+            "DaggerTestComponent shard sizes (bindings, estimated constant pool entries): "
+                + "DaggerTestComponent (");
+    assertThat(compilation).hadNoteContaining("Shard1 (");
+  }
+
+  @Test
+  public void testSizeAwareShardingCountsSharedDependenciesOnce() {
+    // Consumers of the same leaves only reference each leaf once from the shard, so the graph stays
+    // under the constant pool limit of a shard. Its initialization statements still exceed the size
+    // limit per method.
+    ImmutableList<JavaFileObject> javaFileObjects =
+        consumerGraph(/* consumerCount= */ 40, /* leavesPerConsumer= */ 200, /* shared= */ true);
+
+    String withoutSizeAwareSharding = compileWithSizeAwareSharding(javaFileObjects, false);
+    String withSizeAwareSharding = compileWithSizeAwareSharding(javaFileObjects, true);
+
+    assertThat(withoutSizeAwareSharding).doesNotContain("class Shard1");
+    assertThat(withSizeAwareSharding).doesNotContain("class Shard1");
+    assertThat(countInitializeMethods(withSizeAwareSharding))
+        .isGreaterThan(countInitializeMethods(withoutSizeAwareSharding));
+  }
+
+  @Test
+  public void testSizeAwareShardingSplitsLargeGraph() {
+    // 1809 bindings with 1800 distinct dependencies stay under the default keysPerComponentShard,
+    // but their estimated constant pool entries exceed the limit of a shard.
+    ImmutableList<JavaFileObject> javaFileObjects =
+        consumerGraph(/* consumerCount= */ 9, /* leavesPerConsumer= */ 200, /* shared= */ false);
+
+    String withoutSizeAwareSharding = compileWithSizeAwareSharding(javaFileObjects, false);
+    String withSizeAwareSharding = compileWithSizeAwareSharding(javaFileObjects, true);
+
+    assertThat(withoutSizeAwareSharding).doesNotContain("class Shard1");
+    assertThat(withSizeAwareSharding).contains("class Shard1");
+  }
+
+  /**
+   * Returns the sources of a component exposing {@code consumerCount} scoped bindings, each
+   * depending on {@code leavesPerConsumer} scoped leaf bindings, either the same leaves for every
+   * consumer or distinct ones.
+   */
+  private static ImmutableList<JavaFileObject> consumerGraph(
+      int consumerCount, int leavesPerConsumer, boolean shared) {
+    ImmutableList.Builder<JavaFileObject> javaFileObjects = ImmutableList.builder();
+    ImmutableList.Builder<String> componentLines = ImmutableList.builder();
+    componentLines.add(
+        "package dagger.internal.codegen;",
+        "",
+        "import dagger.Component;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Singleton",
+        "@Component",
+        "interface TestComponent {");
+    int leafCount = 0;
+    for (int i = 0; i < consumerCount; i++) {
+      String[] leafDeps = new String[leavesPerConsumer];
+      for (int j = 0; j < leavesPerConsumer; j++) {
+        int leaf = shared ? j : i * leavesPerConsumer + j;
+        if (leaf == leafCount) {
+          javaFileObjects.add(createBinding("Leaf" + leaf));
+          leafCount++;
+        }
+        leafDeps[j] = "Leaf" + leaf + " leaf" + leaf;
+      }
+      javaFileObjects.add(createBinding("Consumer" + i, leafDeps));
+      componentLines.add("  Consumer" + i + " consumer" + i + "();");
+    }
+    componentLines.add("}");
+    javaFileObjects.add(
+        JavaFileObjects.forSourceLines(
+            "dagger.internal.codegen.TestComponent", componentLines.build()));
+    return javaFileObjects.build();
+  }
+
+  private String compileWithSizeAwareSharding(
+      ImmutableList<JavaFileObject> javaFileObjects, boolean sizeAwareSharding) {
+    ImmutableSet.Builder<String> options =
+        ImmutableSet.<String>builder().addAll(compilerMode.javacopts());
+    if (sizeAwareSharding) {
+      options.add("-Adagger.sizeAwareComponentSharding=enabled");
+    }
+    return generatedComponentSource(compilerWithOptions(options.build()).compile(javaFileObjects));
+  }
+
+  private static String generatedComponentSource(Compilation compilation) {
+    assertThat(compilation).succeeded();
+    try {
+      return compilation
+          .generatedSourceFile("dagger.internal.codegen.DaggerTestComponent")
+          .get()
+          .getCharContent(false)
+          .toString();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static int countInitializeMethods(String source) {
+    return source.split("private void initialize", -1).length - 1;
+  }
+
   private static JavaFileObject createBinding(String bindingName, String... deps) {
     return JavaFileObjects.forSourceLines(
         "dagger.internal.codegen." + bindingName,
@@ -332,11 +550,12 @@ public class ComponentShardTest {
         "}");
   }
 
-  private Compiler compiler() {
+  private Compiler compiler(String... extraOptions) {
     return compilerWithOptions(
         ImmutableSet.<String>builder()
             .add("-Adagger.keysPerComponentShard=" + BINDINGS_PER_SHARD)
             .addAll(compilerMode.javacopts())
+            .add(extraOptions)
             .build());
   }
 }
@@ -158,6 +158,27 @@ public class KeyFactoryTest {
                 + "}) java.lang.String");
   }
 
+  @Test public void qualifiedKeyEquivalents_interned() {
+    TypeElement moduleElement =
+        elements.getTypeElement(QualifiedProvidesMethodModule.class.getCanonicalName());
+    ExecutableElement providesMethod =
+        Iterables.getOnlyElement(ElementFilter.methodsIn(moduleElement.getEnclosedElements()));
+    Key provisionKey = keyFactory.forProvidesMethod(providesMethod, moduleElement);
+
+    TypeMirror type = elements.getTypeElement(String.class.getCanonicalName()).asType();
+    TypeElement injectableElement =
+        elements.getTypeElement(QualifiedFieldHolder.class.getCanonicalName());
+    Element injectionField =
+        Iterables.getOnlyElement(ElementFilter.fieldsIn(injectableElement.getEnclosedElements()));
+    AnnotationMirror qualifier = Iterables.getOnlyElement(injectionField.getAnnotationMirrors());
+    Key injectionKey = Key.builder(fromJava(type)).qualifier(fromJava(qualifier)).build();
+
+    assertThat(keyFactory.intern(injectionKey)).isSameInstanceAs(provisionKey);
+
+    keyFactory.clearCache();
+    assertThat(keyFactory.intern(injectionKey)).isSameInstanceAs(injectionKey);
+  }
+
   @Module
   static final class QualifiedProvidesMethodModule {
     @Provides
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class LazySubcomponentFrameworkFieldsTest {
+  @Test
+  public void scopedBindingCreatedOnFirstUse() {
+    JavaFileObject requestScope =
+        JavaFileObjects.forSourceLines(
+            "test.RequestScope",
+            "package test;",
+            "",
+            "import javax.inject.Scope;",
+            "",
+            "@Scope",
+            "@interface RequestScope {}");
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "@RequestScope",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject subcomponent =
+        JavaFileObjects.forSourceLines(
+            "test.TestSubcomponent",
+            "package test;",
+            "",
+            "import dagger.Subcomponent;",
+            "",
+            "@RequestScope",
+            "@Subcomponent",
+            "interface TestSubcomponent {",
+            "  Foo foo();",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  TestSubcomponent subcomponent();",
+            "}");
+
+    Compilation compilation =
+        compilerWithOptions("-Adagger.lazySubcomponentFrameworkFields=enabled")
+            .compile(requestScope, foo, subcomponent, component);
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                GeneratedLines.generatedAnnotations(),
+                "final class DaggerTestComponent implements TestComponent {",
+                "  private static final class TestSubcomponentImpl implements TestSubcomponent {",
+                "    private volatile Provider<Foo> fooProvider;",
+                "",
+                "    private Provider<Foo> fooProvider() {",
+                "      Provider<Foo> local = fooProvider;",
+                "      if (local == null) {",
+                "        synchronized (this) {",
+                "          local = fooProvider;",
+                "          if (local == null) {",
+                "            local = DoubleCheck.provider(Foo_Factory.create());",
+                "            fooProvider = local;",
+                "          }",
+                "        }",
+                "      }",
+                "      return local;",
+                "    }",
+                "",
+                "    @Override",
+                "    public Foo foo() {",
+                "      return fooProvider().get();",
+                "    }",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  public void componentRequirementsReadFromFields() {
+    JavaFileObject requestScope =
+        JavaFileObjects.forSourceLines(
+            "test.RequestScope",
+            "package test;",
+            "",
+            "import javax.inject.Scope;",
+            "",
+            "@Scope",
+            "@interface RequestScope {}");
+    JavaFileObject bar =
+        JavaFileObjects.forSourceLines(
+            "test.Bar",
+            "package test;",
+            "",
+            "final class Bar {",
+            "  Bar(String request) {}",
+            "}");
+    JavaFileObject barModule =
+        JavaFileObjects.forSourceLines(
+            "test.BarModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "",
+            "@Module",
+            "final class BarModule {",
+            "  @Provides",
+            "  @RequestScope",
+            "  Bar bar(String request) {",
+            "    return new Bar(request);",
+            "  }",
+            "}");
+    JavaFileObject subcomponent =
+        JavaFileObjects.forSourceLines(
+            "test.TestSubcomponent",
+            "package test;",
+            "",
+            "import dagger.BindsInstance;",
+            "import dagger.Subcomponent;",
+            "",
+            "@RequestScope",
+            "@Subcomponent(modules = BarModule.class)",
+            "interface TestSubcomponent {",
+            "  Bar bar();",
+            "",
+            "  @Subcomponent.Factory",
+            "  interface Factory {",
+            "    TestSubcomponent create(@BindsInstance String request, BarModule barModule);",
+            "  }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  TestSubcomponent.Factory subcomponentFactory();",
+            "}");
+
+    Compilation compilation =
+        compilerWithOptions("-Adagger.lazySubcomponentFrameworkFields=enabled")
+            .compile(requestScope, bar, barModule, subcomponent, component);
+    // The lazy accessors are outside of the constructor, so they must read the module and the bound
+    // instance from the subcomponent's fields rather than from its constructor parameters.
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .contains(
+            "local = DoubleCheck.provider("
+                + "BarModule_BarFactory.create(barModule, requestProvider()));");
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .contains("local = InstanceFactory.create(request);");
+  }
+}
@@ -263,4 +263,76 @@ public class OptionalBindingRequestFulfillmentTest {
         .generatedSourceFile("test.DaggerTestComponent")
         .containsElementsIn(generatedComponent);
   }
+
+  @Test
+  public void scopedOptionalBinding_sharesOptional() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.BindsOptionalOf;",
+            "",
+            "@Module",
+            "interface TestModule {",
+            "  @BindsOptionalOf Foo foo();",
+            "}");
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import com.google.common.base.Optional;",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Optional<Foo> foo();",
+            "}");
+
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerTestComponent")
+            .addLines(
+                "package test;",
+                "",
+                GeneratedLines.generatedAnnotations(),
+                "final class DaggerTestComponent implements TestComponent {")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize() {",
+                "    this.fooProvider = DoubleCheck.provider(Foo_Factory.create());",
+                "    this.optionalOfFooProvider = SingleCheck.provider(",
+                "        PresentGuavaOptionalInstanceProvider.of(fooProvider));",
+                "  }",
+                "",
+                "  @Override",
+                "  public Optional<Foo> foo() {",
+                "    return optionalOfFooProvider.get();",
+                "  }")
+            .addLines("}")
+            .build();
+    Compilation compilation =
+        compilerWithOptions(compilerMode).compile(module, foo, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class WarmUpScopedBindingsTest {
+  private static final JavaFileObject FOO =
+      JavaFileObjects.forSourceLines(
+          "test.Foo",
+          "package test;",
+          "",
+          "import javax.inject.Inject;",
+          "import javax.inject.Singleton;",
+          "",
+          "@Singleton",
+          "final class Foo {",
+          "  @Inject Foo(Bar bar) {}",
+          "}");
+
+  private static final JavaFileObject BAR =
+      JavaFileObjects.forSourceLines(
+          "test.Bar",
+          "package test;",
+          "",
+          "import javax.inject.Inject;",
+          "import javax.inject.Singleton;",
+          "",
+          "@Singleton",
+          "final class Bar {",
+          "  @Inject Bar() {}",
+          "}");
+
+  @Test
+  public void warmUpMethodsGenerated() {
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import dagger.WarmUpScopedBindings;",
+            "import javax.inject.Singleton;",
+            "",
+            "@WarmUpScopedBindings",
+            "@Singleton",
+            "@Component",
+            "interface TestComponent {",
+            "  Foo foo();",
+            "}");
+
+    Compilation compilation = daggerCompiler().compile(component, FOO, BAR);
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                GeneratedLines.generatedAnnotations(),
+                "final class DaggerTestComponent implements TestComponent {",
+                "  public static void warmUpScopedBindings(",
+                "      TestComponent component, Executor executor) throws InterruptedException {",
+                "    ((DaggerTestComponent) component).warmUpScopedBindingWaves(executor);",
+                "  }",
+                "",
+                "  private void warmUpScopedBindingWaves(Executor executor)",
+                "      throws InterruptedException {",
+                "    Provider<?>[] providers = new Provider<?>[2];",
+                "    warmUpProviders(providers);",
+                "    ParallelWarmUp.warmUp(executor, providers, new int[] {0, 1});",
+                "  }",
+                "",
+                "  private void warmUpProviders(Provider<?>[] providers) {",
+                "    providers[0] = barProvider;",
+                "    providers[1] = fooProvider;",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  public void subcomponent_fails() {
+    JavaFileObject subcomponent =
+        JavaFileObjects.forSourceLines(
+            "test.TestSubcomponent",
+            "package test;",
+            "",
+            "import dagger.Subcomponent;",
+            "import dagger.WarmUpScopedBindings;",
+            "",
+            "@WarmUpScopedBindings",
+            "@Subcomponent",
+            "interface TestSubcomponent {}");
+
+    Compilation compilation = daggerCompiler().compile(subcomponent);
+    assertThat(compilation).failed();
+    assertThat(compilation)
+        .hadErrorContaining("@WarmUpScopedBindings may only be applied to @Component types")
+        .inFile(subcomponent)
+        .onLineContaining("interface TestSubcomponent");
+  }
+}
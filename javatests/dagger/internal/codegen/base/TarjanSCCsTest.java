@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2021 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.base;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Range;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class TarjanSCCsTest {
+  // Deep enough to overflow the thread stack with a recursive implementation.
+  private static final int CHAIN_LENGTH = 100_000;
+
+  @Test
+  public void deepChain_doesNotOverflowStack() {
+    ImmutableListMultimap.Builder<Integer, Integer> edges = ImmutableListMultimap.builder();
+    for (int i = 0; i < CHAIN_LENGTH - 1; i++) {
+      edges.put(i, i + 1);
+    }
+
+    ImmutableList<ImmutableSet<Integer>> sccs = compute(CHAIN_LENGTH, edges.build());
+
+    assertThat(sccs).hasSize(CHAIN_LENGTH);
+    // Reverse topological order: the end of the chain comes first.
+    for (int i = 0; i < CHAIN_LENGTH; i++) {
+      assertThat(sccs.get(i)).containsExactly(CHAIN_LENGTH - 1 - i);
+    }
+  }
+
+  @Test
+  public void deepChainClosedIntoCycle_isSingleComponent() {
+    ImmutableListMultimap.Builder<Integer, Integer> edges = ImmutableListMultimap.builder();
+    for (int i = 0; i < CHAIN_LENGTH - 1; i++) {
+      edges.put(i, i + 1);
+    }
+    edges.put(CHAIN_LENGTH - 1, 0);
+
+    ImmutableList<ImmutableSet<Integer>> sccs = compute(CHAIN_LENGTH, edges.build());
+
+    assertThat(sccs).hasSize(1);
+    assertThat(sccs.get(0)).containsExactlyElementsIn(nodes(CHAIN_LENGTH));
+  }
+
+  @Test
+  public void disjointCycles_arePartitioned() {
+    ImmutableListMultimap<Integer, Integer> edges =
+        ImmutableListMultimap.<Integer, Integer>builder()
+            // Cycle {0, 1, 2}, depending on cycle {3, 4}.
+            .put(0, 1)
+            .put(1, 2)
+            .put(2, 0)
+            .put(2, 3)
+            // Cycle {3, 4}, depending on the self-loop {5}.
+            .put(3, 4)
+            .put(4, 3)
+            .put(4, 5)
+            .put(5, 5)
+            // Cycle {6, 7}, unconnected to the others.
+            .put(6, 7)
+            .put(7, 6)
+            // {8} has no edges.
+            .build();
+
+    ImmutableList<ImmutableSet<Integer>> sccs = compute(9, edges);
+
+    assertThat(sccs)
+        .containsExactly(
+            ImmutableSet.of(5),
+            ImmutableSet.of(3, 4),
+            ImmutableSet.of(0, 1, 2),
+            ImmutableSet.of(6, 7),
+            ImmutableSet.of(8))
+        .inOrder();
+  }
+
+  private static ImmutableList<ImmutableSet<Integer>> compute(
+      int nodeCount, ImmutableListMultimap<Integer, Integer> edges) {
+    return TarjanSCCs.compute(nodes(nodeCount), edges::get).asList();
+  }
+
+  private static ContiguousSet<Integer> nodes(int nodeCount) {
+    return ContiguousSet.create(Range.closedOpen(0, nodeCount), DiscreteDomain.integers());
+  }
+}